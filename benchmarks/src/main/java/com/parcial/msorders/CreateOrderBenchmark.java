@@ -0,0 +1,90 @@
+package com.parcial.msorders;
+
+import com.parcial.msorders.client.ProductClient;
+import com.parcial.msorders.dto.OrderDTO;
+import com.parcial.msorders.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de extremo a extremo de OrderService.createOrder: contexto completo de
+ * ms-orders (transacción, circuit breaker, caché de productos y JPA) sobre H2 en memoria,
+ * con el servicio de productos reemplazado por {@link StubProductClient}.
+ * Cada invocación arma una orden nueva porque createOrder modifica el DTO recibido.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CreateOrderBenchmark {
+
+    @Param({"1", "10"})
+    private int itemCount;
+
+    @Param({"true", "false"})
+    private boolean productCache;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(MsOrdersApplication.class, StubProductClientConfig.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:orders-bench;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=create",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                        // createOrder es la creación sincrónica: el despachador del outbox no tiene nada que hacer
+                        "--orders.outbox.dispatcher.enabled=false",
+                        // Sin trazas ni proxy JDBC de observación: se mide solo el servicio
+                        "--management.tracing.enabled=false",
+                        "--jdbc.datasource-proxy.enabled=false",
+                        "--products.cache.enabled=" + productCache);
+        orderService = context.getBean(OrderService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public OrderDTO createOrder() {
+        return orderService.createOrder(OrderFixtures.newOrder(itemCount));
+    }
+
+    /**
+     * Reemplaza el cliente Feign: le quita la marca de primario y registra el stub como primario
+     */
+    @Configuration
+    static class StubProductClientConfig {
+
+        @Bean
+        public static BeanFactoryPostProcessor demoteFeignProductClient() {
+            return beanFactory -> beanFactory.getBeanDefinition(ProductClient.class.getName()).setPrimary(false);
+        }
+
+        @Bean
+        @Primary
+        public ProductClient stubProductClient() {
+            return new StubProductClient();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.parcial.msorders;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cuenta los viajes a la base: cada execute, executeQuery, executeUpdate o executeBatch
+ * de una sentencia suma uno. Un lote cuenta como un solo viaje, igual que en MySQL con
+ * rewriteBatchedStatements. Se registra como configuración adicional del contexto del benchmark.
+ */
+@Configuration
+public class JdbcRoundTripCounter {
+
+    private static final LongAdder ROUND_TRIPS = new LongAdder();
+
+    public static long count() {
+        return ROUND_TRIPS.sum();
+    }
+
+    @Bean
+    public static BeanPostProcessor countingDataSource() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource ? new CountingDataSource(dataSource) : bean;
+            }
+        };
+    }
+
+    private static final class CountingDataSource extends DelegatingDataSource {
+
+        private CountingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return proxy(Connection.class, super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return proxy(Connection.class, super.getConnection(username, password));
+        }
+    }
+
+    /**
+     * Envuelve conexiones y sentencias; las sentencias creadas por la conexión también se envuelven
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target) {
+        return (T) Proxy.newProxyInstance(JdbcRoundTripCounter.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    if (Statement.class.isAssignableFrom(type) && method.getName().startsWith("execute")) {
+                        ROUND_TRIPS.increment();
+                    }
+                    Object result = invoke(target, method, args);
+                    if (type == Connection.class && result instanceof Statement) {
+                        return proxy((Class<Statement>) method.getReturnType(), (Statement) result);
+                    }
+                    return result;
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
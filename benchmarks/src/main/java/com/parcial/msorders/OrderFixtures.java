@@ -0,0 +1,58 @@
+package com.parcial.msorders;
+
+import com.parcial.msorders.dto.OrderDTO;
+import com.parcial.msorders.dto.OrderItemDTO;
+import com.parcial.msorders.model.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Órdenes de ejemplo compartidas por los benchmarks.
+ */
+public final class OrderFixtures {
+
+    private OrderFixtures() {
+    }
+
+    /**
+     * Orden recién recibida: solo cliente, productos y cantidades
+     */
+    public static OrderDTO newOrder(int itemCount) {
+        List<OrderItemDTO> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            items.add(OrderItemDTO.builder()
+                    .productId((long) i + 1)
+                    .quantity(i % 5 + 1)
+                    .build());
+        }
+        return OrderDTO.builder()
+                .customer("Cliente benchmark")
+                .total(BigDecimal.ONE)
+                .items(items)
+                .build();
+    }
+
+    /**
+     * Orden completa, con precios, subtotales y total calculados
+     */
+    public static OrderDTO pricedOrder(long id, int itemCount) {
+        OrderDTO order = newOrder(itemCount);
+        BigDecimal total = BigDecimal.ZERO;
+        for (OrderItemDTO item : order.getItems()) {
+            BigDecimal unitPrice = BigDecimal.valueOf(1999 + item.getProductId(), 2);
+            item.setId(id * 1000 + item.getProductId());
+            item.setProductName("Producto " + item.getProductId());
+            item.setUnitPrice(unitPrice);
+            item.setSubtotal(unitPrice.multiply(new BigDecimal(item.getQuantity())));
+            total = total.add(item.getSubtotal());
+        }
+        order.setId(id);
+        order.setDate(LocalDateTime.of(2024, 1, 1, 12, 0));
+        order.setStatus(OrderStatus.PENDING);
+        order.setTotal(total);
+        return order;
+    }
+}
@@ -0,0 +1,90 @@
+package com.parcial.msorders;
+
+import com.parcial.msorders.dto.OrderDTO;
+import com.parcial.msorders.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput de OrderService.createOrder (órdenes por segundo) con y sin lotes JDBC,
+ * para órdenes de 1, 10 y 50 ítems. Usa el mismo contexto que {@link CreateOrderBenchmark}.
+ * Además de órdenes/s reporta los viajes a la base por orden según {@link JdbcRoundTripCounter}. Con jdbcBatchSize=1 cada fila es un INSERT aparte, igual que con IDs IDENTITY.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class OrderInsertBenchmark {
+
+    @Param({"1", "10", "50"})
+    private int itemCount;
+
+    @Param({"1", "50"})
+    private int jdbcBatchSize;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(MsOrdersApplication.class, CreateOrderBenchmark.StubProductClientConfig.class,
+                JdbcRoundTripCounter.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:orders-insert-bench;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=create",
+                        "--spring.jpa.properties.hibernate.jdbc.batch_size=" + jdbcBatchSize,
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                        // createOrder es la creación sincrónica: el despachador del outbox no tiene nada que hacer
+                        "--orders.outbox.dispatcher.enabled=false",
+                        // Sin trazas ni proxy JDBC de observación: se mide solo el servicio
+                        "--management.tracing.enabled=false",
+                        "--jdbc.datasource-proxy.enabled=false",
+                        "--orders.customer-key.backfill.enabled=false");
+        orderService = context.getBean(OrderService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public OrderDTO createOrder(RoundTrips roundTrips) {
+        long before = JdbcRoundTripCounter.count();
+        OrderDTO order = orderService.createOrder(OrderFixtures.newOrder(itemCount));
+        roundTrips.roundTrips += JdbcRoundTripCounter.count() - before;
+        roundTrips.orders++;
+        return order;
+    }
+
+    /**
+     * Contadores auxiliares de la iteración; JMH los reporta junto al throughput,
+     * así que viajes por orden = roundTrips / orders
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class RoundTrips {
+
+        public long roundTrips;
+        public long orders;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            roundTrips = 0;
+            orders = 0;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.parcial.msorders;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.parcial.msorders.dto.OrderDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks de la serialización JSON de OrderDTO y de una página de órdenes,
+ * con la misma configuración de Jackson que usa Spring Boot en las respuestas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderJsonBenchmark {
+
+    @Param({"1", "10", "50"})
+    private int itemCount;
+
+    @Param({"10"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private OrderDTO order;
+    private Page<OrderDTO> page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        order = OrderFixtures.pricedOrder(1L, itemCount);
+        
+        List<OrderDTO> content = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            content.add(OrderFixtures.pricedOrder(i + 1, itemCount));
+        }
+        page = new PageImpl<>(content, PageRequest.of(0, pageSize, Sort.by("date")), 1000);
+    }
+
+    @Benchmark
+    public byte[] serializeOrder() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(order);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
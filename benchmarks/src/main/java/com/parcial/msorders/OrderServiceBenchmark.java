@@ -0,0 +1,73 @@
+package com.parcial.msorders;
+
+import com.parcial.msorders.dto.OrderDTO;
+import com.parcial.msorders.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks de OrderService por sus métodos públicos, con el mismo contexto que
+ * {@link CreateOrderBenchmark} (H2 en memoria y {@link StubProductClient}):
+ * getOrderById mide la lectura de la orden con sus ítems y el mapeo a DTO; acceptOrder,
+ * los precios desde la caché de productos, el total y el INSERT de la orden y de su evento
+ * del outbox (incluye armar la orden de entrada).
+ * El despachador del outbox está apagado, así que las órdenes aceptadas quedan en PENDING.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderServiceBenchmark {
+
+    @Param({"1", "10", "50"})
+    private int itemCount;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private Long orderId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(MsOrdersApplication.class, CreateOrderBenchmark.StubProductClientConfig.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:orders-service-bench;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=create",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                        // Las órdenes aceptadas no se confirman: se mide solo la aceptación
+                        "--orders.outbox.dispatcher.enabled=false",
+                        // Sin trazas ni proxy JDBC de observación: se mide solo el servicio
+                        "--management.tracing.enabled=false",
+                        "--jdbc.datasource-proxy.enabled=false",
+                        "--orders.customer-key.backfill.enabled=false");
+        orderService = context.getBean(OrderService.class);
+        orderId = orderService.acceptOrder(OrderFixtures.newOrder(itemCount)).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public OrderDTO getOrderById() {
+        return orderService.getOrderById(orderId);
+    }
+
+    @Benchmark
+    public OrderDTO acceptOrder() {
+        return orderService.acceptOrder(OrderFixtures.newOrder(itemCount));
+    }
+}
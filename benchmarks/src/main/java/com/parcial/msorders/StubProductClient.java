@@ -0,0 +1,101 @@
+package com.parcial.msorders;
+
+import com.parcial.msorders.client.ProductClient;
+import com.parcial.msorders.dto.AvailabilityRequestDTO;
+import com.parcial.msorders.dto.BatchReservationRequestDTO;
+import com.parcial.msorders.dto.ProductAvailabilityDTO;
+import com.parcial.msorders.dto.ProductChangeFeedDTO;
+import com.parcial.msorders.dto.ProductDTO;
+import com.parcial.msorders.dto.ReservationRequestDTO;
+import com.parcial.msorders.dto.ReservationResultDTO;
+import com.parcial.msorders.dto.StockReservationDTO;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * ProductClient en memoria para los benchmarks: todos los productos existen,
+ * tienen stock de sobra y las reservas siempre se aceptan.
+ */
+public class StubProductClient implements ProductClient {
+
+    private static final int STOCK = 1_000_000;
+
+    private final AtomicLong reservationIds = new AtomicLong();
+
+    @Override
+    public ResponseEntity<ProductDTO> getProductById(Long id) {
+        return ResponseEntity.ok(ProductDTO.builder()
+                .id(id)
+                .name("Producto " + id)
+                .price(price(id))
+                .stock(STOCK)
+                .build());
+    }
+
+    @Override
+    public ResponseEntity<Boolean> checkStock(Long id, Integer quantity) {
+        return ResponseEntity.ok(quantity <= STOCK);
+    }
+
+    @Override
+    public ResponseEntity<List<ProductAvailabilityDTO>> checkAvailability(AvailabilityRequestDTO request) {
+        return ResponseEntity.ok(request.getItems().stream()
+                .map(item -> ProductAvailabilityDTO.builder()
+                        .productId(item.getProductId())
+                        .name("Producto " + item.getProductId())
+                        .price(price(item.getProductId()))
+                        .stock(STOCK)
+                        .requestedQuantity(item.getQuantity())
+                        .found(true)
+                        .available(item.getQuantity() <= STOCK)
+                        .build())
+                .collect(Collectors.toList()));
+    }
+
+    @Override
+    public ResponseEntity<ProductChangeFeedDTO> getProductChanges(Long since, Integer limit) {
+        return ResponseEntity.ok(new ProductChangeFeedDTO(0L, List.of(), since < 0, false));
+    }
+
+    @Override
+    public ResponseEntity<StockReservationDTO> reserveStock(ReservationRequestDTO request) {
+        LocalDateTime now = LocalDateTime.now();
+        return ResponseEntity.ok(StockReservationDTO.builder()
+                .id(reservationIds.incrementAndGet())
+                .status("RESERVED")
+                .createdAt(now)
+                .expiresAt(now.plusMinutes(5))
+                .items(request.getItems())
+                .build());
+    }
+
+    @Override
+    public ResponseEntity<List<ReservationResultDTO>> reserveStockBatch(BatchReservationRequestDTO request) {
+        return ResponseEntity.ok(request.getReservations().stream()
+                .map(reservation -> ReservationResultDTO.builder()
+                        .reference(reservation.getReference())
+                        .outcome(ReservationResultDTO.Outcome.RESERVED)
+                        .reservation(reserveStock(reservation).getBody())
+                        .build())
+                .collect(Collectors.toList()));
+    }
+
+    @Override
+    public ResponseEntity<StockReservationDTO> commitReservation(Long id) {
+        return ResponseEntity.ok(StockReservationDTO.builder().id(id).status("COMMITTED").build());
+    }
+
+    @Override
+    public ResponseEntity<StockReservationDTO> releaseReservation(Long id) {
+        return ResponseEntity.ok(StockReservationDTO.builder().id(id).status("RELEASED").build());
+    }
+
+    private BigDecimal price(Long productId) {
+        return BigDecimal.valueOf(1999 + productId, 2);
+    }
+}
@@ -0,0 +1,109 @@
+package com.parcial.msproducts;
+
+import com.parcial.msproducts.dto.ProductDTO;
+import com.parcial.msproducts.model.Product;
+import com.parcial.msproducts.repository.ProductRepository;
+import com.parcial.msproducts.service.StockLedger;
+import com.parcial.msproducts.service.impl.ProductServiceImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de ProductServiceImpl.getProductById con el producto gestionado o no
+ * por el ledger de stock en memoria. El repositorio es un stub que devuelve siempre
+ * el mismo producto, así se mide la búsqueda y el mapeo a DTO sin la base.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductServiceBenchmark {
+
+    private static final Long PRODUCT_ID = 1L;
+
+    @Param({"false", "true"})
+    private boolean ledgerTracked;
+
+    private ProductServiceImpl productService;
+
+    @Setup
+    public void setUp() {
+        Optional<Product> product = Optional.of(Product.builder()
+                .id(PRODUCT_ID)
+                .name("Producto benchmark")
+                .description("Producto usado para medir el mapeo a DTO")
+                .price(new BigDecimal("19.99"))
+                .stock(100)
+                .category("Benchmark")
+                .build());
+        ProductRepository productRepository = (ProductRepository) Proxy.newProxyInstance(
+                ProductRepository.class.getClassLoader(), new Class<?>[]{ProductRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findById")) {
+                        return product;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        // La lectura solo usa el repositorio y el ledger; feed de cambios, proveedor de stock y métricas no se usan
+        productService = new ProductServiceImpl(productRepository, new FixedStockLedger(ledgerTracked), null, null, null);
+    }
+
+    @Benchmark
+    public ProductDTO getProductById() {
+        return productService.getProductById(PRODUCT_ID);
+    }
+
+    /**
+     * Ledger de solo lectura: devuelve siempre el mismo stock o ninguno
+     */
+    static class FixedStockLedger implements StockLedger {
+
+        private final boolean tracked;
+
+        FixedStockLedger(boolean tracked) {
+            this.tracked = tracked;
+        }
+
+        @Override
+        public boolean isTracked(Long productId) {
+            return tracked;
+        }
+
+        @Override
+        public OptionalInt availableStock(Long productId) {
+            return tracked ? OptionalInt.of(42) : OptionalInt.empty();
+        }
+
+        @Override
+        public boolean tryReserve(Long productId, int quantity) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void restore(Long productId, int quantity) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void adjust(Long productId, int delta) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void untrack(Long productId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void flush() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
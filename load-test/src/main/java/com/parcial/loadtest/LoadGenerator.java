@@ -0,0 +1,302 @@
+package com.parcial.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Generador de carga de modelo abierto: envía peticiones a ritmo fijo (rps) sin esperar
+ * las respuestas, y mide la latencia desde el instante en que la petición debía salir.
+ * Así una pausa del servicio se refleja en los percentiles en vez de bajar el ritmo
+ * (omisión coordinada).
+ */
+public class LoadGenerator {
+
+    private static final long HIGHEST_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(2);
+    private static final int CREATED_IDS_RING = 10_000;
+    private static final String[] STATUS_UPDATES = {"CONFIRMED", "SHIPPED", "DELIVERED"};
+
+    private final LoadTestConfig config;
+    private final URI baseUri;
+    private final Supplier<String> breakerState;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ExecutorService callbackExecutor = Executors.newFixedThreadPool(
+            Math.max(2, Runtime.getRuntime().availableProcessors()));
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(callbackExecutor)
+            .build();
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+    private final Operation[] weightedOperations;
+    private final AtomicLongArray createdIds = new AtomicLongArray(CREATED_IDS_RING);
+    private final AtomicLong createdCount = new AtomicLong();
+    private final Semaphore inFlight;
+
+    public LoadGenerator(LoadTestConfig config, URI baseUri, Supplier<String> breakerState) {
+        this.config = config;
+        this.baseUri = baseUri;
+        this.breakerState = breakerState;
+        this.inFlight = new Semaphore(config.getMaxInFlight());
+        
+        List<Operation> weighted = new ArrayList<>();
+        config.getMix().forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                weighted.add(operation);
+            }
+        });
+        this.weightedOperations = weighted.toArray(new Operation[0]);
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+    }
+
+    /**
+     * Ejecuta el calentamiento y la medición
+     * @param onStart Recibe el instante (System.nanoTime) en que empieza la carga
+     */
+    public void run(LongConsumer onStart, PrintStream out) throws InterruptedException {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / config.getRps();
+        long start = System.nanoTime();
+        long measureStart = start + config.getWarmup().toNanos();
+        long end = measureStart + config.getDuration().toNanos();
+        onStart.accept(start);
+        
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+        long reportMillis = config.getReportInterval().toMillis();
+        reporter.scheduleAtFixedRate(() -> printInterval(out, start, measureStart),
+                reportMillis, reportMillis, TimeUnit.MILLISECONDS);
+        
+        for (long i = 0; ; i++) {
+            long intendedStart = start + i * intervalNanos;
+            if (intendedStart >= end) {
+                break;
+            }
+            long wait = intendedStart - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation operation = weightedOperations[ThreadLocalRandom.current().nextInt(weightedOperations.length)];
+            issue(operation, intendedStart, intendedStart >= measureStart);
+        }
+        
+        // Esperar las respuestas pendientes antes de cerrar el reporte
+        if (inFlight.tryAcquire(config.getMaxInFlight(), 30, TimeUnit.SECONDS)) {
+            inFlight.release(config.getMaxInFlight());
+        }
+        reporter.shutdownNow();
+        callbackExecutor.shutdown();
+    }
+
+    private void issue(Operation operation, long intendedStart, boolean measured) {
+        if (operation == Operation.STATUS && createdCount.get() == 0) {
+            operation = Operation.CREATE;
+        }
+        OperationStats operationStats = stats.get(operation);
+        if (!inFlight.tryAcquire()) {
+            operationStats.recordOutcome("DESCARTADA", false, measured);
+            return;
+        }
+        
+        Operation issued = operation;
+        client.sendAsync(buildRequest(operation), HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, error) -> {
+                    inFlight.release();
+                    long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStart);
+                    operationStats.recordLatency(latencyMicros, measured);
+                    if (error != null) {
+                        Throwable cause = error.getCause() != null ? error.getCause() : error;
+                        operationStats.recordOutcome(cause.getClass().getSimpleName(), false, measured);
+                        return;
+                    }
+                    boolean success = response.statusCode() / 100 == 2;
+                    operationStats.recordOutcome(String.valueOf(response.statusCode()), success, measured);
+                    if (success && issued == Operation.CREATE) {
+                        rememberCreated(response.body());
+                    }
+                });
+    }
+
+    private HttpRequest buildRequest(Operation operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        HttpRequest.Builder request = HttpRequest.newBuilder().timeout(Duration.ofSeconds(30));
+        switch (operation) {
+            case CREATE -> request.uri(baseUri.resolve("/api/orders"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(newOrder(random)));
+            case SEARCH -> request.uri(baseUri.resolve("/api/orders/search?customer=cliente-"
+                    + random.nextInt(config.getCustomers()) + "&size=10"))
+                    .GET();
+            case STATUS -> {
+                long count = createdCount.get();
+                long orderId = createdIds.get((int) (random.nextLong(Math.min(count, CREATED_IDS_RING))));
+                request.uri(baseUri.resolve("/api/orders/" + orderId + "/status?status="
+                                + STATUS_UPDATES[random.nextInt(STATUS_UPDATES.length)]))
+                        .method("PATCH", HttpRequest.BodyPublishers.noBody());
+            }
+        }
+        return request.build();
+    }
+
+    private String newOrder(ThreadLocalRandom random) {
+        ObjectNode order = objectMapper.createObjectNode()
+                .put("customer", "cliente-" + random.nextInt(config.getCustomers()))
+                .put("total", 1);
+        ArrayNode items = order.putArray("items");
+        int itemCount = 1 + random.nextInt(config.getMaxItemsPerOrder());
+        for (int i = 0; i < itemCount; i++) {
+            items.addObject()
+                    .put("productId", 1 + random.nextInt(config.getProductCount()))
+                    .put("quantity", 1 + random.nextInt(3));
+        }
+        return order.toString();
+    }
+
+    private void rememberCreated(String body) {
+        try {
+            long id = objectMapper.readTree(body).path("id").asLong();
+            long position = createdCount.getAndIncrement();
+            createdIds.set((int) (position % CREATED_IDS_RING), id);
+        } catch (Exception e) {
+            // Una respuesta ilegible no invalida la prueba; solo no se reutiliza el id
+        }
+    }
+
+    private void printInterval(PrintStream out, long start, long measureStart) {
+        long now = System.nanoTime();
+        Histogram interval = new Histogram(HIGHEST_LATENCY_MICROS, 3);
+        long errors = 0;
+        for (OperationStats operationStats : stats.values()) {
+            interval.add(operationStats.interval.getIntervalHistogram());
+            errors += operationStats.intervalErrors.sumThenReset();
+        }
+        double seconds = config.getReportInterval().toMillis() / 1000.0;
+        out.printf("%s t=%5.0fs  resp/s=%7.1f  errores/s=%6.1f  p50=%8.2fms  p99=%8.2fms  en vuelo=%5d  cb=%s%n",
+                now < measureStart ? "[calentamiento]" : "[medición]     ",
+                (now - start) / 1e9,
+                interval.getTotalCount() / seconds,
+                errors / seconds,
+                interval.getValueAtPercentile(50) / 1000.0,
+                interval.getValueAtPercentile(99) / 1000.0,
+                config.getMaxInFlight() - inFlight.availablePermits(),
+                breakerState.get());
+    }
+
+    /**
+     * Imprime el resumen de la fase de medición por operación y en total
+     */
+    public void printReport(PrintStream out) {
+        double seconds = config.getDuration().toMillis() / 1000.0;
+        out.println();
+        out.printf("%-8s %9s %9s %8s %10s %10s %10s %10s %10s%n",
+                "op", "total", "errores", "error%", "resp/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+            printRow(out, entry.getKey().name(), entry.getValue().totalHistogram(), entry.getValue().requests.sum(),
+                    entry.getValue().errors.sum(), seconds);
+        }
+        printRow(out, "TOTAL", totalHistogram(), totalRequests(), totalErrors(), seconds);
+        
+        out.println();
+        out.println("Resultados (código HTTP o excepción):");
+        for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+            Map<String, Long> outcomes = new TreeMap<>();
+            entry.getValue().outcomes.forEach((outcome, count) -> outcomes.put(outcome, count.sum()));
+            if (!outcomes.isEmpty()) {
+                out.printf("  %-8s %s%n", entry.getKey().name(), outcomes);
+            }
+        }
+    }
+
+    private void printRow(PrintStream out, String name, Histogram histogram, long requests, long errors, double seconds) {
+        out.printf("%-8s %9d %9d %7.2f%% %10.1f %10.2f %10.2f %10.2f %10.2f%n",
+                name, requests, errors,
+                requests == 0 ? 0.0 : 100.0 * errors / requests,
+                requests / seconds,
+                histogram.getValueAtPercentile(50) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0,
+                histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMaxValue() / 1000.0);
+    }
+
+    public Histogram totalHistogram() {
+        Histogram total = new Histogram(HIGHEST_LATENCY_MICROS, 3);
+        stats.values().forEach(operationStats -> total.add(operationStats.totalHistogram()));
+        return total;
+    }
+
+    public long totalRequests() {
+        return stats.values().stream().mapToLong(operationStats -> operationStats.requests.sum()).sum();
+    }
+
+    public long totalErrors() {
+        return stats.values().stream().mapToLong(operationStats -> operationStats.errors.sum()).sum();
+    }
+
+    /**
+     * Latencias (en microsegundos) y resultados de una operación
+     */
+    private static class OperationStats {
+
+        private final Recorder interval = new Recorder(HIGHEST_LATENCY_MICROS, 3);
+        private final Recorder measured = new Recorder(HIGHEST_LATENCY_MICROS, 3);
+        private final Histogram total = new Histogram(HIGHEST_LATENCY_MICROS, 3);
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder intervalErrors = new LongAdder();
+        private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+
+        void recordLatency(long micros, boolean measuredPhase) {
+            long value = Math.min(micros, HIGHEST_LATENCY_MICROS);
+            interval.recordValue(value);
+            if (measuredPhase) {
+                measured.recordValue(value);
+            }
+        }
+
+        void recordOutcome(String outcome, boolean success, boolean measuredPhase) {
+            if (!success) {
+                intervalErrors.increment();
+            }
+            if (!measuredPhase) {
+                return;
+            }
+            requests.increment();
+            if (!success) {
+                errors.increment();
+            }
+            outcomes.computeIfAbsent(outcome, key -> new LongAdder()).increment();
+        }
+
+        synchronized Histogram totalHistogram() {
+            total.add(measured.getIntervalHistogram());
+            return total.copy();
+        }
+    }
+}
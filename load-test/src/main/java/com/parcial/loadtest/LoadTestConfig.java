@@ -0,0 +1,99 @@
+package com.parcial.loadtest;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parámetros de la prueba de carga, leídos de argumentos clave=valor.
+ * Los argumentos con prefijo "orders." se pasan tal cual a ms-orders
+ * (por ejemplo orders.spring.threads.virtual.enabled=true).
+ */
+@Getter
+public class LoadTestConfig {
+
+    /** Peticiones por segundo que se intentan enviar, sin importar cuánto tarden las respuestas */
+    private final int rps;
+    private final Duration warmup;
+    private final Duration duration;
+    private final Duration reportInterval;
+    private final int maxInFlight;
+    /** Peso de cada operación: create, search y status */
+    private final Map<Operation, Integer> mix;
+    private final int customers;
+    private final int maxItemsPerOrder;
+
+    private final int productCount;
+    private final Duration stubLatency;
+    private final Duration stubJitter;
+    private final double stubErrorRate;
+    private final Duration stubFaultStart;
+    private final Duration stubFaultDuration;
+
+    /** Umbrales de aceptación; si se superan el proceso termina con código 1 */
+    private final double maxErrorRate;
+    private final Duration maxP99;
+
+    private final List<String> ordersArguments;
+
+    private LoadTestConfig(Map<String, String> values, List<String> ordersArguments) {
+        this.rps = Integer.parseInt(values.getOrDefault("rps", "100"));
+        this.warmup = Duration.parse(values.getOrDefault("warmup", "PT10S"));
+        this.duration = Duration.parse(values.getOrDefault("duration", "PT60S"));
+        this.reportInterval = Duration.parse(values.getOrDefault("report-interval", "PT5S"));
+        this.maxInFlight = Integer.parseInt(values.getOrDefault("max-in-flight", "2000"));
+        this.mix = parseMix(values.getOrDefault("mix", "create:60,search:30,status:10"));
+        this.customers = Integer.parseInt(values.getOrDefault("customers", "500"));
+        this.maxItemsPerOrder = Integer.parseInt(values.getOrDefault("max-items", "5"));
+        this.productCount = Integer.parseInt(values.getOrDefault("stub.products", "100"));
+        this.stubLatency = Duration.parse(values.getOrDefault("stub.latency", "PT0.02S"));
+        this.stubJitter = Duration.parse(values.getOrDefault("stub.jitter", "PT0.01S"));
+        this.stubErrorRate = Double.parseDouble(values.getOrDefault("stub.error-rate", "0"));
+        this.stubFaultStart = Duration.parse(values.getOrDefault("stub.fault-start", "PT0S"));
+        this.stubFaultDuration = Duration.parse(values.getOrDefault("stub.fault-duration", "PT0S"));
+        this.maxErrorRate = Double.parseDouble(values.getOrDefault("gate.max-error-rate", "1"));
+        this.maxP99 = values.containsKey("gate.max-p99") ? Duration.parse(values.get("gate.max-p99")) : null;
+        this.ordersArguments = ordersArguments;
+    }
+
+    public static LoadTestConfig fromArgs(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        List<String> ordersArguments = new ArrayList<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Argumento inválido, se espera clave=valor: " + arg);
+            }
+            String key = arg.substring(0, separator);
+            if (key.startsWith("orders.")) {
+                ordersArguments.add("--" + arg.substring("orders.".length()));
+            } else {
+                values.put(key, arg.substring(separator + 1));
+            }
+        }
+        return new LoadTestConfig(values, ordersArguments);
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            weights.put(Operation.valueOf(parts[0].trim().toUpperCase()), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+
+    /**
+     * Indica si el stub debe fallar en este instante de la prueba (ventana de falla)
+     */
+    public boolean inFaultWindow(Duration elapsed) {
+        return !stubFaultDuration.isZero()
+                && elapsed.compareTo(stubFaultStart) >= 0
+                && elapsed.compareTo(stubFaultStart.plus(stubFaultDuration)) < 0;
+    }
+}
@@ -0,0 +1,123 @@
+package com.parcial.loadtest;
+
+import com.parcial.msorders.MsOrdersApplication;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Prueba de carga de extremo a extremo de ms-orders.
+ * Levanta un servicio de productos simulado ({@link ProductServiceStub}) y ms-orders sobre H2
+ * en memoria en un puerto libre, genera carga sobre POST /api/orders, GET /api/orders/search
+ * y PATCH /api/orders/{id}/status, y reporta percentiles, throughput, tasa de error y los
+ * cambios de estado del circuit breaker productService.
+ * Termina con código 1 si se superan los umbrales gate.max-error-rate o gate.max-p99.
+ */
+public class LoadTestRunner {
+
+    private static final String CIRCUIT_BREAKER = "productService";
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromArgs(args);
+        ProductServiceStub stub = new ProductServiceStub(config);
+        int stubPort = stub.start();
+        
+        ConfigurableApplicationContext orders = new SpringApplicationBuilder(MsOrdersApplication.class)
+                .run(ordersArguments(config, stubPort));
+        int ordersPort = ((WebServerApplicationContext) orders).getWebServer().getPort();
+        
+        AtomicLong loadStart = new AtomicLong(System.nanoTime());
+        List<String> transitions = Collections.synchronizedList(new ArrayList<>());
+        AtomicLong notPermitted = new AtomicLong();
+        CircuitBreaker breaker = orders.getBean(CircuitBreakerRegistry.class).circuitBreaker(CIRCUIT_BREAKER);
+        breaker.getEventPublisher()
+                .onStateTransition(event -> transitions.add(String.format("%7.1fs  %s",
+                        (System.nanoTime() - loadStart.get()) / 1e9, event.getStateTransition())))
+                .onCallNotPermitted(event -> notPermitted.incrementAndGet());
+        
+        System.out.printf("ms-orders en el puerto %d, productos simulados en el puerto %d%n", ordersPort, stubPort);
+        System.out.printf("rps=%d calentamiento=%s medición=%s mezcla=%s latencia stub=%s±%s errores stub=%.1f%%%n",
+                config.getRps(), config.getWarmup(), config.getDuration(), config.getMix(),
+                config.getStubLatency(), config.getStubJitter(), config.getStubErrorRate() * 100);
+        
+        LoadGenerator generator = new LoadGenerator(config, URI.create("http://localhost:" + ordersPort),
+                () -> breaker.getState().name());
+        generator.run(start -> {
+            loadStart.set(start);
+            stub.markLoadStart(start);
+        }, System.out);
+        
+        generator.printReport(System.out);
+        System.out.println();
+        System.out.printf("Circuit breaker %s: estado final %s, llamadas rechazadas %d, fallas inyectadas por el stub %d%n",
+                CIRCUIT_BREAKER, breaker.getState(), notPermitted.get(), stub.getInjectedFaults());
+        transitions.forEach(transition -> System.out.println("  " + transition));
+        
+        boolean passed = checkGate(config, generator);
+        orders.close();
+        stub.stop();
+        System.exit(passed ? 0 : 1);
+    }
+
+    /**
+     * Argumentos de ms-orders: H2 en memoria, puerto libre y el stub como servicio de productos.
+     * Los argumentos orders.* de la línea de comandos reemplazan a estos valores.
+     */
+    static String[] ordersArguments(LoadTestConfig config, int stubPort) {
+        Map<String, String> arguments = new LinkedHashMap<>();
+        arguments.put("server.port", "0");
+        arguments.put("spring.datasource.url", "jdbc:h2:mem:orders-load;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        arguments.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        arguments.put("spring.datasource.username", "sa");
+        arguments.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        arguments.put("spring.jpa.hibernate.ddl-auto", "create");
+        arguments.put("spring.jpa.show-sql", "false");
+        arguments.put("logging.level.root", "WARN");
+        arguments.put("logging.level.org.hibernate.SQL", "WARN");
+        arguments.put("logging.level.org.hibernate.type.descriptor.sql.BasicBinder", "WARN");
+        // Las fallas inyectadas ya se cuentan en el reporte
+        arguments.put("logging.level.com.parcial.msorders", "OFF");
+        // Sin colector OTLP durante la prueba; se activa con orders.management.tracing.enabled=true
+        arguments.put("management.tracing.enabled", "false");
+        arguments.put("products.service.url", "http://localhost:" + stubPort);
+        for (String argument : config.getOrdersArguments()) {
+            int separator = argument.indexOf('=');
+            arguments.put(argument.substring(2, separator), argument.substring(separator + 1));
+        }
+        return arguments.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+    }
+
+    private static boolean checkGate(LoadTestConfig config, LoadGenerator generator) {
+        long requests = generator.totalRequests();
+        double errorRate = requests == 0 ? 0 : (double) generator.totalErrors() / requests;
+        Histogram total = generator.totalHistogram();
+        Duration p99 = Duration.ofNanos(total.getValueAtPercentile(99) * 1000);
+        
+        boolean passed = true;
+        if (errorRate > config.getMaxErrorRate()) {
+            System.out.printf("GATE: tasa de error %.2f%% supera el máximo %.2f%%%n",
+                    errorRate * 100, config.getMaxErrorRate() * 100);
+            passed = false;
+        }
+        if (config.getMaxP99() != null && p99.compareTo(config.getMaxP99()) > 0) {
+            System.out.printf("GATE: p99 %s supera el máximo %s%n", p99, config.getMaxP99());
+            passed = false;
+        }
+        System.out.println(passed ? "GATE: OK" : "GATE: FALLÓ");
+        return passed;
+    }
+}
@@ -0,0 +1,10 @@
+package com.parcial.loadtest;
+
+/**
+ * Operaciones de la API de órdenes que genera la prueba de carga
+ */
+public enum Operation {
+    CREATE,
+    SEARCH,
+    STATUS
+}
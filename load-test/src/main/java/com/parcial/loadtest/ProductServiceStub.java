@@ -0,0 +1,221 @@
+package com.parcial.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Servicio de productos simulado sobre el servidor HTTP del JDK.
+ * Responde los endpoints que usa ms-orders (disponibilidad, reservas sueltas y en lote, feed de cambios)
+ * con una latencia configurable y puede inyectar errores 503, ya sea al azar
+ * (stub.error-rate) o durante una ventana fija (stub.fault-start, stub.fault-duration)
+ * para forzar la apertura del circuit breaker.
+ */
+@Slf4j
+public class ProductServiceStub {
+
+    private static final Pattern PRODUCT_PATH = Pattern.compile("/api/products/(\\d+)(/check-stock)?");
+    private static final Pattern RESERVATION_PATH = Pattern.compile("/api/reservations/(\\d+)/(commit|release)");
+    private static final int STOCK = 1_000_000;
+
+    private final LoadTestConfig config;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final AtomicLong reservationIds = new AtomicLong();
+    private final AtomicLong injectedFaults = new AtomicLong();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private HttpServer server;
+    private volatile long loadStartNanos = Long.MAX_VALUE;
+
+    public ProductServiceStub(LoadTestConfig config) {
+        this.config = config;
+    }
+
+    public int start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+        return server.getAddress().getPort();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Marca el inicio de la carga; la ventana de falla se cuenta desde aquí
+     */
+    public void markLoadStart(long nanos) {
+        this.loadStartNanos = nanos;
+    }
+
+    public long getInjectedFaults() {
+        return injectedFaults.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            if (path.equals("/api/products/changes")) {
+                // El feed de cambios no se demora ni falla: no forma parte del camino de la orden
+                respond(exchange, 200, changeFeed(exchange.getRequestURI()));
+                return;
+            }
+            
+            simulateLatency();
+            if (shouldFail()) {
+                injectedFaults.incrementAndGet();
+                respond(exchange, 503, objectMapper.createObjectNode().put("message", "Falla inyectada"));
+                return;
+            }
+            
+            Matcher reservation = RESERVATION_PATH.matcher(path);
+            Matcher product = PRODUCT_PATH.matcher(path);
+            if (path.equals("/api/products/availability")) {
+                respond(exchange, 200, availability(read(exchange)));
+            } else if (path.equals("/api/reservations")) {
+                respond(exchange, 201, reserve(read(exchange)));
+            } else if (path.equals("/api/reservations/batch")) {
+                respond(exchange, 200, reserveBatch(read(exchange)));
+            } else if (reservation.matches()) {
+                respond(exchange, 200, objectMapper.createObjectNode()
+                        .put("id", Long.parseLong(reservation.group(1)))
+                        .put("status", reservation.group(2).equals("commit") ? "COMMITTED" : "RELEASED"));
+            } else if (product.matches() && product.group(2) != null) {
+                respond(exchange, 200, objectMapper.getNodeFactory().booleanNode(true));
+            } else if (product.matches()) {
+                long id = Long.parseLong(product.group(1));
+                respond(exchange, 200, objectMapper.createObjectNode()
+                        .put("id", id)
+                        .put("name", "Producto " + id)
+                        .put("price", price(id))
+                        .put("stock", STOCK)
+                        .put("category", "Carga"));
+            } else {
+                respond(exchange, 404, objectMapper.createObjectNode().put("message", "No encontrado: " + path));
+            }
+        } catch (RuntimeException e) {
+            log.error("Error en el stub de productos: {}", e.getMessage());
+            respond(exchange, 500, objectMapper.createObjectNode().put("message", e.getMessage()));
+        }
+    }
+
+    private JsonNode availability(JsonNode request) {
+        ArrayNode response = objectMapper.createArrayNode();
+        for (JsonNode item : request.path("items")) {
+            long productId = item.path("productId").asLong();
+            boolean found = productId >= 1 && productId <= config.getProductCount();
+            response.addObject()
+                    .put("productId", productId)
+                    .put("name", "Producto " + productId)
+                    .put("price", price(productId))
+                    .put("stock", found ? STOCK : 0)
+                    .put("requestedQuantity", item.path("quantity").asInt())
+                    .put("found", found)
+                    .put("available", found);
+        }
+        return response;
+    }
+
+    private JsonNode reserve(JsonNode request) {
+        LocalDateTime now = LocalDateTime.now();
+        ObjectNode reservation = objectMapper.createObjectNode()
+                .put("id", reservationIds.incrementAndGet())
+                .put("status", "RESERVED")
+                .put("createdAt", now.toString())
+                .put("expiresAt", now.plusMinutes(5).toString());
+        reservation.set("items", request.path("items"));
+        return reservation;
+    }
+
+    /**
+     * Reservas del despachador del outbox: todas se aceptan, confirmadas si el lote lo pide
+     */
+    private JsonNode reserveBatch(JsonNode request) {
+        ArrayNode results = objectMapper.createArrayNode();
+        for (JsonNode item : request.path("reservations")) {
+            ObjectNode reservation = (ObjectNode) reserve(item);
+            if (request.path("commit").asBoolean()) {
+                reservation.put("status", "COMMITTED");
+            }
+            results.addObject()
+                    .put("reference", item.path("reference").asText())
+                    .put("outcome", "RESERVED")
+                    .set("reservation", reservation);
+        }
+        return results;
+    }
+
+    private JsonNode changeFeed(URI uri) {
+        boolean initial = uri.getQuery() != null && uri.getQuery().contains("since=-1");
+        ObjectNode feed = objectMapper.createObjectNode()
+                .put("version", 0)
+                .put("reset", initial)
+                .put("hasMore", false);
+        feed.putArray("productIds");
+        return feed;
+    }
+
+    private BigDecimal price(long productId) {
+        return BigDecimal.valueOf(999 + productId * 10, 2);
+    }
+
+    private void simulateLatency() {
+        long latency = config.getStubLatency().toNanos();
+        long jitter = config.getStubJitter().toNanos();
+        if (jitter > 0) {
+            latency += ThreadLocalRandom.current().nextLong(jitter);
+        }
+        if (latency > 0) {
+            try {
+                Thread.sleep(Duration.ofNanos(latency).toMillis(), (int) (latency % 1_000_000));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private boolean shouldFail() {
+        long start = loadStartNanos;
+        if (start != Long.MAX_VALUE && config.inFaultWindow(Duration.ofNanos(System.nanoTime() - start))) {
+            return true;
+        }
+        return config.getStubErrorRate() > 0 && ThreadLocalRandom.current().nextDouble() < config.getStubErrorRate();
+    }
+
+    private JsonNode read(HttpExchange exchange) throws IOException {
+        return objectMapper.readTree(exchange.getRequestBody());
+    }
+
+    private void respond(HttpExchange exchange, int status, JsonNode body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsString(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
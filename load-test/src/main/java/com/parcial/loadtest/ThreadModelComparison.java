@@ -0,0 +1,150 @@
+package com.parcial.loadtest;
+
+import com.parcial.msorders.MsOrdersApplication;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compara el techo de throughput de ms-orders con hilos de plataforma (pool de Tomcat) y con hilos virtuales.
+ * Para cada modo levanta ms-orders contra el servicio de productos simulado y sube el ritmo de a ramp.step
+ * hasta ramp.max; el techo es el mayor ritmo sostenido sin superar ceiling.max-error-rate ni ceiling.max-p99
+ * y con al menos el 95% de las respuestas exitosas esperadas.
+ * Por defecto cada POST /api/orders bloquea su hilo en una llamada de 100 ms a ms-products (caché de
+ * productos apagada) sin retener una conexión; con confirmación sincrónica la transacción abierta durante
+ * las llamadas Feign limita antes el pool de conexiones que los hilos. Los demás argumentos son los de
+ * {@link LoadTestRunner}.
+ * Con Java anterior a 21 el modo virtual se omite, porque Spring Boot ignoraría spring.threads.virtual.enabled.
+ */
+public class ThreadModelComparison {
+
+    private static final double MIN_DELIVERED_RATIO = 0.95;
+    private static final List<String> DEFAULTS = List.of(
+            "warmup=PT5S",
+            "duration=PT15S",
+            "mix=create:100",
+            "stub.latency=PT0.1S",
+            "stub.jitter=PT0.02S",
+            "orders.products.cache.enabled=false");
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> values = new HashMap<>();
+        List<String> loadArguments = new ArrayList<>(DEFAULTS);
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            String key = separator < 0 ? arg : arg.substring(0, separator);
+            if (key.startsWith("ramp.") || key.startsWith("ceiling.") || key.equals("modes")) {
+                values.put(key, arg.substring(separator + 1));
+            } else {
+                loadArguments.add(arg);
+            }
+        }
+        int rampStart = Integer.parseInt(values.getOrDefault("ramp.start", "100"));
+        int rampStep = Integer.parseInt(values.getOrDefault("ramp.step", "100"));
+        int rampMax = Integer.parseInt(values.getOrDefault("ramp.max", "2000"));
+        double maxErrorRate = Double.parseDouble(values.getOrDefault("ceiling.max-error-rate", "0.01"));
+        Duration maxP99 = Duration.parse(values.getOrDefault("ceiling.max-p99", "PT1S"));
+        String[] modes = values.getOrDefault("modes", "platform,virtual").split(",");
+
+        LoadTestConfig base = LoadTestConfig.fromArgs(loadArguments.toArray(String[]::new));
+        ProductServiceStub stub = new ProductServiceStub(base);
+        int stubPort = stub.start();
+        System.out.printf("Rampa %d..%d rps de a %d; techo: error <= %.1f%%, p99 <= %s, entregado >= %.0f%%%n",
+                rampStart, rampMax, rampStep, maxErrorRate * 100, maxP99, MIN_DELIVERED_RATIO * 100);
+        System.out.printf("calentamiento=%s medición=%s por paso, mezcla=%s, latencia stub=%s±%s%n",
+                base.getWarmup(), base.getDuration(), base.getMix(), base.getStubLatency(), base.getStubJitter());
+
+        Map<String, Step> ceilings = new LinkedHashMap<>();
+        for (String mode : modes) {
+            boolean virtual = mode.trim().equals("virtual");
+            if (virtual && Runtime.version().feature() < 21) {
+                System.out.printf("%nModo virtual omitido: requiere Java 21 (JVM actual %s)%n", Runtime.version());
+                continue;
+            }
+            List<String> modeArguments = new ArrayList<>(loadArguments);
+            modeArguments.add("orders.spring.threads.virtual.enabled=" + virtual);
+            modeArguments.add("orders.spring.datasource.url=jdbc:h2:mem:orders-" + mode.trim()
+                    + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+            LoadTestConfig modeConfig = LoadTestConfig.fromArgs(modeArguments.toArray(String[]::new));
+
+            ConfigurableApplicationContext orders = new SpringApplicationBuilder(MsOrdersApplication.class)
+                    .run(LoadTestRunner.ordersArguments(modeConfig, stubPort));
+            URI baseUri = URI.create("http://localhost:" + ((WebServerApplicationContext) orders).getWebServer().getPort());
+
+            System.out.printf("%nModo %s%n", mode.trim());
+            System.out.printf("%8s %10s %8s %10s %10s%n", "rps", "resp/s", "error%", "p99 ms", "resultado");
+            Step ceiling = null;
+            for (int rps = rampStart; rps <= rampMax; rps += rampStep) {
+                List<String> stepArguments = new ArrayList<>(modeArguments);
+                stepArguments.add("rps=" + rps);
+                LoadTestConfig stepConfig = LoadTestConfig.fromArgs(stepArguments.toArray(String[]::new));
+                LoadGenerator generator = new LoadGenerator(stepConfig, baseUri, () -> "-");
+                generator.run(start -> stub.markLoadStart(start), new PrintStream(OutputStream.nullOutputStream()));
+
+                Step step = Step.of(rps, generator, stepConfig.getDuration());
+                boolean sustained = step.errorRate <= maxErrorRate
+                        && step.p99.compareTo(maxP99) <= 0
+                        && step.delivered >= rps * MIN_DELIVERED_RATIO;
+                System.out.printf("%8d %10.1f %7.2f%% %10.2f %10s%n", rps, step.delivered, step.errorRate * 100,
+                        step.p99.toNanos() / 1e6, sustained ? "OK" : "saturado");
+                if (!sustained) {
+                    break;
+                }
+                ceiling = step;
+            }
+            ceilings.put(mode.trim(), ceiling);
+            orders.close();
+        }
+        stub.stop();
+
+        System.out.printf("%nTecho de throughput%n");
+        System.out.printf("%-10s %8s %10s %10s%n", "modo", "rps", "resp/s", "p99 ms");
+        ceilings.forEach((mode, step) -> {
+            if (step == null) {
+                System.out.printf("%-10s %8s%n", mode, "< " + rampStart);
+            } else {
+                System.out.printf("%-10s %8d %10.1f %10.2f%n", mode, step.rps, step.delivered, step.p99.toNanos() / 1e6);
+            }
+        });
+        System.exit(0);
+    }
+
+    /**
+     * Resultado de un paso de la rampa
+     */
+    private static final class Step {
+
+        private final int rps;
+        private final double delivered;
+        private final double errorRate;
+        private final Duration p99;
+
+        private Step(int rps, double delivered, double errorRate, Duration p99) {
+            this.rps = rps;
+            this.delivered = delivered;
+            this.errorRate = errorRate;
+            this.p99 = p99;
+        }
+
+        static Step of(int rps, LoadGenerator generator, Duration duration) {
+            long requests = generator.totalRequests();
+            long errors = generator.totalErrors();
+            Histogram total = generator.totalHistogram();
+            return new Step(rps,
+                    (requests - errors) / (duration.toMillis() / 1000.0),
+                    requests == 0 ? 0 : (double) errors / requests,
+                    Duration.ofNanos(total.getValueAtPercentile(99) * 1000));
+        }
+    }
+}
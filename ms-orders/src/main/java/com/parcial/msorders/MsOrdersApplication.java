@@ -1,11 +1,16 @@
 package com.parcial.msorders;
 
+import com.parcial.shared.threads.VirtualThreadDiagnosticsConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableFeignClients
+@EnableScheduling
+@Import(VirtualThreadDiagnosticsConfig.class)
 public class MsOrdersApplication {
 
     public static void main(String[] args) {
@@ -1,12 +1,23 @@
 package com.parcial.msorders.client;
 
+import com.parcial.msorders.dto.AvailabilityRequestDTO;
+import com.parcial.msorders.dto.BatchReservationRequestDTO;
+import com.parcial.msorders.dto.ProductAvailabilityDTO;
+import com.parcial.msorders.dto.ProductChangeFeedDTO;
 import com.parcial.msorders.dto.ProductDTO;
+import com.parcial.msorders.dto.ReservationRequestDTO;
+import com.parcial.msorders.dto.ReservationResultDTO;
+import com.parcial.msorders.dto.StockReservationDTO;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import java.util.List;
+
 @FeignClient(name = "ms-products", url = "${products.service.url}")
 public interface ProductClient {
 
@@ -17,4 +28,24 @@ public interface ProductClient {
     ResponseEntity<Boolean> checkStock(
             @PathVariable("id") Long id,
             @RequestParam("quantity") Integer quantity);
-} 
\ No newline at end of file
+    
+    @PostMapping("/api/products/availability")
+    ResponseEntity<List<ProductAvailabilityDTO>> checkAvailability(@RequestBody AvailabilityRequestDTO request);
+    
+    @GetMapping("/api/products/changes")
+    ResponseEntity<ProductChangeFeedDTO> getProductChanges(
+            @RequestParam("since") Long since,
+            @RequestParam("limit") Integer limit);
+    
+    @PostMapping("/api/reservations")
+    ResponseEntity<StockReservationDTO> reserveStock(@RequestBody ReservationRequestDTO request);
+    
+    @PostMapping("/api/reservations/batch")
+    ResponseEntity<List<ReservationResultDTO>> reserveStockBatch(@RequestBody BatchReservationRequestDTO request);
+    
+    @PostMapping("/api/reservations/{id}/commit")
+    ResponseEntity<StockReservationDTO> commitReservation(@PathVariable("id") Long id);
+    
+    @PostMapping("/api/reservations/{id}/release")
+    ResponseEntity<StockReservationDTO> releaseReservation(@PathVariable("id") Long id);
+}
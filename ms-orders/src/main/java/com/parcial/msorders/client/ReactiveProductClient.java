@@ -0,0 +1,88 @@
+package com.parcial.msorders.client;
+
+import com.parcial.msorders.dto.AvailabilityRequestDTO;
+import com.parcial.msorders.dto.ProductAvailabilityDTO;
+import com.parcial.msorders.dto.ProductDTO;
+import com.parcial.msorders.dto.ReservationRequestDTO;
+import com.parcial.msorders.dto.StockReservationDTO;
+import com.parcial.msorders.exception.InsufficientStockException;
+import com.parcial.msorders.exception.ResourceNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Cliente no bloqueante del servicio de productos para la variante reactiva.
+ * Expone el mismo contrato que {@link ProductClient} pero devuelve {@link Mono}.
+ * Un 404 se traduce en ResourceNotFoundException y un 409 en InsufficientStockException.
+ */
+@Component
+@Profile("reactive")
+public class ReactiveProductClient {
+
+    private final WebClient webClient;
+
+    public ReactiveProductClient(
+            WebClient.Builder webClientBuilder,
+            @Value("${products.service.url}") String productsServiceUrl) {
+        this.webClient = webClientBuilder.baseUrl(productsServiceUrl).build();
+    }
+
+    public Mono<ProductDTO> getProductById(Long id) {
+        return webClient.get()
+                .uri("/api/products/{id}", id)
+                .retrieve()
+                .onStatus(status -> status.value() == HttpStatus.NOT_FOUND.value(),
+                        response -> Mono.error(new ResourceNotFoundException("Producto no encontrado con id: " + id)))
+                .bodyToMono(ProductDTO.class);
+    }
+    
+    public Mono<Boolean> checkStock(Long id, Integer quantity) {
+        return webClient.get()
+                .uri(uri -> uri.path("/api/products/{id}/check-stock").queryParam("quantity", quantity).build(id))
+                .retrieve()
+                .onStatus(status -> status.value() == HttpStatus.NOT_FOUND.value(),
+                        response -> Mono.error(new ResourceNotFoundException("Producto no encontrado con id: " + id)))
+                .bodyToMono(Boolean.class);
+    }
+    
+    public Mono<List<ProductAvailabilityDTO>> checkAvailability(AvailabilityRequestDTO request) {
+        return webClient.post()
+                .uri("/api/products/availability")
+                .bodyValue(request)
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<List<ProductAvailabilityDTO>>() {});
+    }
+    
+    public Mono<StockReservationDTO> reserveStock(ReservationRequestDTO request) {
+        return webClient.post()
+                .uri("/api/reservations")
+                .bodyValue(request)
+                .retrieve()
+                .onStatus(status -> status.value() == HttpStatus.CONFLICT.value(),
+                        response -> Mono.error(new InsufficientStockException("Stock insuficiente para reservar los productos de la orden")))
+                .onStatus(status -> status.value() == HttpStatus.NOT_FOUND.value(),
+                        response -> Mono.error(new ResourceNotFoundException("Producto no encontrado al reservar stock")))
+                .bodyToMono(StockReservationDTO.class);
+    }
+    
+    public Mono<StockReservationDTO> commitReservation(Long id) {
+        return webClient.post()
+                .uri("/api/reservations/{id}/commit", id)
+                .retrieve()
+                .bodyToMono(StockReservationDTO.class);
+    }
+    
+    public Mono<StockReservationDTO> releaseReservation(Long id) {
+        return webClient.post()
+                .uri("/api/reservations/{id}/release", id)
+                .retrieve()
+                .bodyToMono(StockReservationDTO.class);
+    }
+}
@@ -0,0 +1,86 @@
+package com.parcial.msorders.config;
+
+import io.micrometer.context.ContextRegistry;
+import io.micrometer.context.ContextSnapshotFactory;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.contextpropagation.ObservationAwareSpanThreadLocalAccessor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Configuración del ejecutor usado para consultar productos en paralelo.
+ * Con hilos virtuales se crea un hilo por consulta; sin ellos se usa un pool
+ * acotado de hilos de plataforma.
+ * Las tareas llevan la traza del hilo que las encola (y con ella traceId/spanId en el MDC).
+ */
+@Configuration
+@Profile("!reactive")
+public class ProductLookupConfig {
+
+    /**
+     * Copia la observación y el span actuales del hilo que encola al que ejecuta
+     * El span se registra aparte porque los de @NewSpan no son observaciones
+     * Spring Boot también lo aplica al ejecutor general
+     */
+    @Bean
+    public TaskDecorator contextPropagatingTaskDecorator(ObjectProvider<Tracer> tracer) {
+        ContextRegistry registry = new ContextRegistry().loadThreadLocalAccessors();
+        tracer.ifAvailable(available ->
+                registry.registerThreadLocalAccessor(new ObservationAwareSpanThreadLocalAccessor(available)));
+        return new ContextPropagatingTaskDecorator(ContextSnapshotFactory.builder()
+                .contextRegistry(registry)
+                .build());
+    }
+
+    @Bean
+    public AsyncTaskExecutor productLookupExecutor(
+            TaskDecorator contextPropagatingTaskDecorator,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${products.lookup.executor.pool-size:64}") int poolSize) {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("product-lookup-");
+            executor.setVirtualThreads(true);
+            executor.setTaskDecorator(contextPropagatingTaskDecorator);
+            return executor;
+        }
+        // El contenedor lo inicializa (afterPropertiesSet) y lo apaga al cerrar el contexto
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("product-lookup-");
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(poolSize * 16);
+        executor.setTaskDecorator(contextPropagatingTaskDecorator);
+        return executor;
+    }
+
+    /**
+     * Ejecutor general de Spring (@Async, MVC asíncrono)
+     * Spring Boot no lo crea si ya hay otro Executor en el contexto, como productLookupExecutor;
+     * se declara igual que en TaskExecutionAutoConfiguration, con las propiedades spring.task.execution
+     */
+    @Lazy
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public AsyncTaskExecutor applicationTaskExecutor(
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            SimpleAsyncTaskExecutorBuilder simpleAsyncTaskExecutorBuilder,
+            ThreadPoolTaskExecutorBuilder threadPoolTaskExecutorBuilder) {
+        if (virtualThreads) {
+            return simpleAsyncTaskExecutorBuilder.build();
+        }
+        return threadPoolTaskExecutorBuilder.build();
+    }
+}
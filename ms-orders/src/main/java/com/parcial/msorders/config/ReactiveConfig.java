@@ -0,0 +1,45 @@
+package com.parcial.msorders.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.web.ReactivePageableHandlerMethodArgumentResolver;
+import org.springframework.http.client.ReactorResourceFactory;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.reactive.result.method.annotation.ArgumentResolverConfigurer;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * Configuración de la variante reactiva (perfil reactive).
+ * El servidor Netty y el WebClient comparten un event loop con un número fijo de hilos
+ * (orders.reactive.event-loop-threads); ninguna operación de la cadena de la orden
+ * debe bloquearlos. Se declara el servidor Netty explícitamente porque Tomcat también
+ * está en el classpath por la variante bloqueante.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveConfig implements WebFluxConfigurer {
+
+    @Bean
+    public ReactorResourceFactory reactorResourceFactory(
+            @Value("${orders.reactive.event-loop-threads:4}") int eventLoopThreads) {
+        ReactorResourceFactory factory = new ReactorResourceFactory();
+        factory.setUseGlobalResources(false);
+        factory.setLoopResourcesSupplier(() -> LoopResources.create("orders-event-loop", eventLoopThreads, true));
+        return factory;
+    }
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory(ReactorResourceFactory reactorResourceFactory) {
+        NettyReactiveWebServerFactory factory = new NettyReactiveWebServerFactory();
+        factory.setResourceFactory(reactorResourceFactory);
+        return factory;
+    }
+
+    @Override
+    public void configureArgumentResolvers(ArgumentResolverConfigurer configurer) {
+        configurer.addCustomResolver(new ReactivePageableHandlerMethodArgumentResolver());
+    }
+}
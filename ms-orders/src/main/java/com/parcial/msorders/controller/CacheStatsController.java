@@ -0,0 +1,31 @@
+package com.parcial.msorders.controller;
+
+import com.parcial.msorders.dto.ProductCacheStatsDTO;
+import com.parcial.msorders.service.ProductCatalogService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controlador REST para consultar el estado de la caché de productos.
+ */
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/cache")
+@RequiredArgsConstructor
+public class CacheStatsController {
+
+    private final ProductCatalogService productCatalogService;
+
+    /**
+     * Obtiene aciertos, fallos y desalojos de la caché de productos
+     * @return Estadísticas de la caché con código de estado 200 (OK)
+     */
+    @GetMapping("/products")
+    public ResponseEntity<ProductCacheStatsDTO> getProductCacheStats() {
+        return ResponseEntity.ok(productCatalogService.getCacheStats());
+    }
+}
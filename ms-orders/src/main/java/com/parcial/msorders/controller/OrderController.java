@@ -1,37 +1,126 @@
 package com.parcial.msorders.controller;
 
+import com.parcial.msorders.dto.CursorPage;
 import com.parcial.msorders.dto.OrderDTO;
+import com.parcial.msorders.dto.OrderSummaryDTO;
+import com.parcial.msorders.dto.StoredOrderResponse;
+import com.parcial.msorders.exception.BadRequestException;
+import com.parcial.msorders.model.CustomerMatch;
+import com.parcial.msorders.model.ExportFormat;
+import com.parcial.msorders.model.OrderFingerprint;
 import com.parcial.msorders.model.OrderStatus;
+import com.parcial.msorders.service.BulkOrderService;
+import com.parcial.msorders.service.IdempotencyStore;
+import com.parcial.msorders.service.OrderExportService;
 import com.parcial.msorders.service.OrderService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 
 /**
  * Controlador REST para gestionar las operaciones de órdenes.
  * Expone los endpoints para crear órdenes y consultar su estado.
  */
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/orders")
 @RequiredArgsConstructor
 public class OrderController {
 
+    private static final String VIEW_FULL = "full";
+    private static final String VIEW_SUMMARY = "summary";
+    private static final int MAX_SCROLL_SIZE = 100;
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+    private static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
     private final OrderService orderService;
+    private final BulkOrderService bulkOrderService;
+    private final OrderExportService orderExportService;
+    private final IdempotencyStore idempotencyStore;
+
+    @Value("${orders.confirmation.mode:async}")
+    private String confirmationMode;
 
     /**
      * Crea una nueva orden
+     * Con orders.confirmation.mode=async (por defecto) la orden se acepta en estado PENDING y se
+     * responde 202 (ACCEPTED) con su URL en Location; el stock se reserva en segundo plano y la orden
+     * pasa a CONFIRMED o CANCELLED. Con sync se reserva en la misma petición y se responde 201 (CREATED)
+     * Con el header Idempotency-Key la misma clave y la misma orden devuelven la respuesta guardada
+     * (con Idempotent-Replayed: true) sin crear otra orden; la misma clave con otra orden responde 422
+     * @param idempotencyKey Clave de idempotencia del cliente (opcional, hasta 255 caracteres)
      * @param orderDTO Datos de la orden a crear (validados)
-     * @return La orden creada con código de estado 201 (CREATED)
+     * @return La orden aceptada (202) o creada (201)
      */
     @PostMapping
-    public ResponseEntity<OrderDTO> createOrder(@Valid @RequestBody OrderDTO orderDTO) {
-        OrderDTO createdOrder = orderService.createOrder(orderDTO);
-        return new ResponseEntity<>(createdOrder, HttpStatus.CREATED);
+    public ResponseEntity<OrderDTO> createOrder(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @Valid @RequestBody OrderDTO orderDTO) {
+        if (idempotencyKey == null) {
+            return toResponse(create(orderDTO));
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new BadRequestException("El header Idempotency-Key debe tener entre 1 y "
+                    + MAX_IDEMPOTENCY_KEY_LENGTH + " caracteres");
+        }
+        // La huella se toma antes de crear: la creación completa el DTO con precios e ID
+        String fingerprint = OrderFingerprint.of(orderDTO);
+        return toResponse(idempotencyStore.execute(idempotencyKey, fingerprint, () -> create(orderDTO)));
+    }
+
+    private StoredOrderResponse create(OrderDTO orderDTO) {
+        if (!"sync".equalsIgnoreCase(confirmationMode)) {
+            return new StoredOrderResponse(HttpStatus.ACCEPTED.value(), orderService.acceptOrder(orderDTO), false);
+        }
+        return new StoredOrderResponse(HttpStatus.CREATED.value(), orderService.createOrder(orderDTO), false);
+    }
+
+    private ResponseEntity<OrderDTO> toResponse(StoredOrderResponse stored) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(stored.getStatus());
+        if (stored.getStatus() == HttpStatus.ACCEPTED.value()) {
+            response.location(ServletUriComponentsBuilder.fromCurrentRequest()
+                    .path("/{id}")
+                    .buildAndExpand(stored.getOrder().getId())
+                    .toUri());
+        }
+        if (stored.isReplayed()) {
+            response.header(IDEMPOTENT_REPLAYED, "true");
+        }
+        return response.body(stored.getOrder());
+    }
+
+    /**
+     * Carga masiva de órdenes
+     * El cuerpo es NDJSON (una orden por línea) o un arreglo JSON; se lee de a una orden y se crean
+     * en tramos transaccionales. La respuesta es NDJSON con un resultado por orden (index, outcome,
+     * orderId o errorCode), escrita a medida que termina cada tramo
+     * @param request Petición con las órdenes en el cuerpo
+     * @param response Respuesta donde se escriben los resultados
+     */
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public void createOrders(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        bulkOrderService.importOrders(request.getInputStream(), response.getOutputStream());
     }
 
     /**
@@ -47,35 +136,106 @@ public class OrderController {
 
     /**
      * Obtiene todas las órdenes con paginación
+     * @param view full (por defecto) para incluir los ítems, summary para solo la cabecera y la cantidad de ítems
      * @param pageable Información de paginación (tamaño, página, ordenamiento)
      * @return Página de órdenes con código de estado 200 (OK)
      */
     @GetMapping
-    public ResponseEntity<Page<OrderDTO>> getAllOrders(
+    public ResponseEntity<Page<?>> getAllOrders(
+            @RequestParam(defaultValue = VIEW_FULL) String view,
             @PageableDefault(size = 10, sort = "date") Pageable pageable) {
+        if (isSummary(view)) {
+            return ResponseEntity.ok(orderService.getOrderSummaries(pageable));
+        }
         Page<OrderDTO> orders = orderService.getAllOrders(pageable);
         return ResponseEntity.ok(orders);
     }
 
+    /**
+     * Recorre todas las órdenes por cursor, ordenadas por fecha e id
+     * A diferencia del listado paginado no calcula el total ni usa offset, así que el costo
+     * de cada página no crece al avanzar
+     * @param cursor nextCursor de la respuesta anterior (omitir en la primera página)
+     * @param size Cantidad de órdenes por página (1 a 100)
+     * @return Página de órdenes con el cursor para continuar con código de estado 200 (OK)
+     */
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<OrderDTO>> scrollOrders(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer size) {
+        if (size < 1 || size > MAX_SCROLL_SIZE) {
+            throw new BadRequestException("El tamaño de página debe estar entre 1 y " + MAX_SCROLL_SIZE);
+        }
+        return ResponseEntity.ok(orderService.getOrdersAfter(cursor, size));
+    }
+
+    /**
+     * Exporta las órdenes que cumplen el filtro, ordenadas por fecha e id
+     * Se escriben directo en la respuesta a medida que se leen de la base, sin paginar
+     * @param status Estado de la orden (opcional)
+     * @param from Fecha inicial, inclusive (opcional, ISO 8601)
+     * @param to Fecha final, exclusiva (opcional, ISO 8601)
+     * @param format NDJSON (por defecto, una orden con sus ítems por línea) o CSV (una fila por ítem)
+     * @param response Respuesta donde se escribe la exportación
+     */
+    @GetMapping("/export")
+    public void exportOrders(
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            HttpServletResponse response) throws IOException {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new BadRequestException("La fecha inicial debe ser anterior a la final");
+        }
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("orders." + format.getExtension())
+                .build()
+                .toString());
+        orderExportService.exportOrders(status, from, to, format, response.getOutputStream());
+    }
+
     /**
      * Busca órdenes por cliente o estado
-     * @param customer Nombre o parte del nombre del cliente (opcional)
+     * @param customer Nombre o comienzo del nombre del cliente, sin distinguir mayúsculas ni acentos (opcional)
+     * @param match PREFIX (por defecto) si el nombre empieza con customer, EXACT si es igual
      * @param status Estado de la orden (opcional)
+     * @param view full (por defecto) para incluir los ítems, summary para solo la cabecera y la cantidad de ítems
      * @param pageable Información de paginación
      * @return Página de órdenes que coinciden con los criterios de búsqueda
      */
     @GetMapping("/search")
-    public ResponseEntity<Page<OrderDTO>> searchOrders(
+    public ResponseEntity<Page<?>> searchOrders(
             @RequestParam(required = false) String customer,
+            @RequestParam(defaultValue = "PREFIX") CustomerMatch match,
             @RequestParam(required = false) OrderStatus status,
+            @RequestParam(defaultValue = VIEW_FULL) String view,
             @PageableDefault(size = 10) Pageable pageable) {
         
+        boolean hasCustomer = customer != null && !customer.isEmpty();
+        
+        if (isSummary(view)) {
+            Page<OrderSummaryDTO> summaries;
+            if (hasCustomer && status != null) {
+                summaries = orderService.getOrderSummariesByCustomerAndStatus(customer, match, status, pageable);
+            } else if (hasCustomer) {
+                summaries = orderService.getOrderSummariesByCustomer(customer, match, pageable);
+            } else if (status != null) {
+                summaries = orderService.getOrderSummariesByStatus(status, pageable);
+            } else {
+                summaries = orderService.getOrderSummaries(pageable);
+            }
+            return ResponseEntity.ok(summaries);
+        }
+        
         Page<OrderDTO> orders;
         
-        if (customer != null && !customer.isEmpty() && status != null) {
-            orders = orderService.getOrdersByCustomerAndStatus(customer, status, pageable);
-        } else if (customer != null && !customer.isEmpty()) {
-            orders = orderService.getOrdersByCustomer(customer, pageable);
+        if (hasCustomer && status != null) {
+            orders = orderService.getOrdersByCustomerAndStatus(customer, match, status, pageable);
+        } else if (hasCustomer) {
+            orders = orderService.getOrdersByCustomer(customer, match, pageable);
         } else if (status != null) {
             orders = orderService.getOrdersByStatus(status, pageable);
         } else {
@@ -98,4 +258,14 @@ public class OrderController {
         OrderDTO updatedOrder = orderService.updateOrderStatus(id, status);
         return ResponseEntity.ok(updatedOrder);
     }
-} 
\ No newline at end of file
+
+    private boolean isSummary(String view) {
+        if (VIEW_SUMMARY.equalsIgnoreCase(view)) {
+            return true;
+        }
+        if (VIEW_FULL.equalsIgnoreCase(view)) {
+            return false;
+        }
+        throw new BadRequestException("Vista no válida: " + view + " (use full o summary)");
+    }
+}
@@ -0,0 +1,82 @@
+package com.parcial.msorders.controller;
+
+import com.parcial.msorders.dto.OrderDTO;
+import com.parcial.msorders.model.CustomerMatch;
+import com.parcial.msorders.model.OrderStatus;
+import com.parcial.msorders.service.ReactiveOrderService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+/**
+ * Controlador REST reactivo de órdenes (perfil reactive).
+ * Expone los mismos endpoints que {@link OrderController} sobre WebFlux.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/orders")
+@RequiredArgsConstructor
+public class ReactiveOrderController {
+
+    private final ReactiveOrderService orderService;
+
+    /**
+     * Crea una nueva orden
+     * @param orderDTO Datos de la orden a crear (validados)
+     * @return La orden creada con código de estado 201 (CREATED)
+     */
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<OrderDTO> createOrder(@Valid @RequestBody OrderDTO orderDTO) {
+        return orderService.createOrder(orderDTO);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<OrderDTO> getOrderById(@PathVariable Long id) {
+        return orderService.getOrderById(id);
+    }
+
+    @GetMapping
+    public Mono<Page<OrderDTO>> getAllOrders(
+            @PageableDefault(size = 10, sort = "date") Pageable pageable) {
+        return orderService.getAllOrders(pageable);
+    }
+
+    /**
+     * Busca órdenes por cliente o estado
+     * @param customer Nombre o comienzo del nombre del cliente, sin distinguir mayúsculas ni acentos (opcional)
+     * @param match PREFIX (por defecto) si el nombre empieza con customer, EXACT si es igual
+     * @param status Estado de la orden (opcional)
+     * @param pageable Información de paginación
+     * @return Página de órdenes que coinciden con los criterios de búsqueda
+     */
+    @GetMapping("/search")
+    public Mono<Page<OrderDTO>> searchOrders(
+            @RequestParam(required = false) String customer,
+            @RequestParam(defaultValue = "PREFIX") CustomerMatch match,
+            @RequestParam(required = false) OrderStatus status,
+            @PageableDefault(size = 10) Pageable pageable) {
+        
+        if (customer != null && !customer.isEmpty() && status != null) {
+            return orderService.getOrdersByCustomerAndStatus(customer, match, status, pageable);
+        } else if (customer != null && !customer.isEmpty()) {
+            return orderService.getOrdersByCustomer(customer, match, pageable);
+        } else if (status != null) {
+            return orderService.getOrdersByStatus(status, pageable);
+        }
+        return orderService.getAllOrders(pageable);
+    }
+
+    @PatchMapping("/{id}/status")
+    public Mono<OrderDTO> updateOrderStatus(
+            @PathVariable Long id,
+            @RequestParam OrderStatus status) {
+        return orderService.updateOrderStatus(id, status);
+    }
+}
@@ -0,0 +1,21 @@
+package com.parcial.msorders.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO para reservar en el servicio de productos el stock de varias órdenes en una sola llamada
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchReservationRequestDTO {
+    
+    private boolean commit;
+    private List<ReservationRequestDTO> reservations;
+}
@@ -0,0 +1,40 @@
+package com.parcial.msorders.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Resultado de una orden de la carga masiva; se escribe como una línea NDJSON.
+ * index es la posición de la orden en el cuerpo de la petición (desde 0)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkOrderResultDTO {
+    
+    /**
+     * CREATED: orden guardada; REJECTED: datos inválidos, producto inexistente o sin stock;
+     * FAILED: error del servicio de productos o de la base, se puede reintentar
+     */
+    public enum Outcome {
+        CREATED,
+        REJECTED,
+        FAILED
+    }
+    
+    private long index;
+    private Outcome outcome;
+    private Long orderId;
+    private BigDecimal total;
+    private String errorCode;
+    private String message;
+    private Map<String, String> errors;
+}
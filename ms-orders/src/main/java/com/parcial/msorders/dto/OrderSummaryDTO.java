@@ -0,0 +1,28 @@
+package com.parcial.msorders.dto;
+
+import com.parcial.msorders.model.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * DTO de resumen de una orden para los listados: datos de cabecera y cantidad de ítems.
+ * Se arma directamente desde la consulta, sin cargar las entidades
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderSummaryDTO {
+    
+    private Long id;
+    private String customer;
+    private LocalDateTime date;
+    private OrderStatus status;
+    private BigDecimal total;
+    private Integer itemCount;
+}
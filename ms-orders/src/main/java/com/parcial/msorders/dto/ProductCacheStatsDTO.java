@@ -0,0 +1,23 @@
+package com.parcial.msorders.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con las estadísticas de la caché de productos
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductCacheStatsDTO {
+    
+    private long size;
+    private long hitCount;
+    private long missCount;
+    private double hitRate;
+    private long evictionCount;
+    private long changeFeedVersion;
+}
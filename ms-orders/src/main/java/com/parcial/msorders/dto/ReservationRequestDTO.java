@@ -0,0 +1,29 @@
+package com.parcial.msorders.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO para solicitar una reserva de stock
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReservationRequestDTO {
+    
+    @NotEmpty(message = "La reserva debe tener al menos un ítem")
+    @Valid
+    private List<StockCheckItemDTO> items;
+    
+    /**
+     * Clave de idempotencia (order-<id>); nula en las reservas de la creación sincrónica
+     */
+    private String reference;
+}
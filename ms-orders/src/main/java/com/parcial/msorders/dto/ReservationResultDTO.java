@@ -0,0 +1,31 @@
+package com.parcial.msorders.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de una reserva del lote, en el mismo orden que la petición
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReservationResultDTO {
+    
+    /**
+     * RESERVED: stock reservado (o ya reservado antes con la misma referencia);
+     * REJECTED: producto inexistente, stock insuficiente o reserva vencida
+     */
+    public enum Outcome {
+        RESERVED,
+        REJECTED
+    }
+    
+    private String reference;
+    private Outcome outcome;
+    private StockReservationDTO reservation;
+    private String errorCode;
+    private String message;
+}
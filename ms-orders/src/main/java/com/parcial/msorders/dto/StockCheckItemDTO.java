@@ -0,0 +1,25 @@
+package com.parcial.msorders.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con el par (producto, cantidad) a verificar en una consulta de disponibilidad
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockCheckItemDTO {
+    
+    @NotNull(message = "El ID del producto es obligatorio")
+    private Long productId;
+    
+    @NotNull(message = "La cantidad es obligatoria")
+    @Positive(message = "La cantidad debe ser mayor que cero")
+    private Integer quantity;
+}
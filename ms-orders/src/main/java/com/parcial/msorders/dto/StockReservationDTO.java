@@ -0,0 +1,25 @@
+package com.parcial.msorders.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO con los datos de una reserva de stock del servicio de productos
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReservationDTO {
+    
+    private Long id;
+    private String status;
+    private LocalDateTime createdAt;
+    private LocalDateTime expiresAt;
+    private List<StockCheckItemDTO> items;
+}
@@ -0,0 +1,21 @@
+package com.parcial.msorders.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Respuesta de POST /api/orders guardada para una Idempotency-Key.
+ * replayed indica que se devolvió la respuesta guardada sin volver a crear la orden
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StoredOrderResponse {
+    
+    private int status;
+    private OrderDTO order;
+    private boolean replayed;
+}
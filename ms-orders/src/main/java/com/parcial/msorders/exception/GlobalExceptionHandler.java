@@ -1,6 +1,7 @@
 package com.parcial.msorders.exception;
 
 import feign.FeignException;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
@@ -20,6 +21,7 @@ import java.util.Map;
  * Manejador global de excepciones para la API de órdenes
  */
 @ControllerAdvice
+@Profile("!reactive")
 public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
 
     @ExceptionHandler(ResourceNotFoundException.class)
@@ -48,6 +50,58 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(errorDetails, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<ErrorDetails> handleBadRequestException(
+            BadRequestException exception, WebRequest webRequest) {
+        
+        ErrorDetails errorDetails = new ErrorDetails(
+                LocalDateTime.now(),
+                exception.getMessage(),
+                webRequest.getDescription(false),
+                "SOLICITUD_INVALIDA");
+        
+        return new ResponseEntity<>(errorDetails, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<ErrorDetails> handleIdempotencyKeyReusedException(
+            IdempotencyKeyReusedException exception, WebRequest webRequest) {
+        
+        ErrorDetails errorDetails = new ErrorDetails(
+                LocalDateTime.now(),
+                exception.getMessage(),
+                webRequest.getDescription(false),
+                "CLAVE_IDEMPOTENCIA_REUTILIZADA");
+        
+        return new ResponseEntity<>(errorDetails, HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    @ExceptionHandler(RequestInProgressException.class)
+    public ResponseEntity<ErrorDetails> handleRequestInProgressException(
+            RequestInProgressException exception, WebRequest webRequest) {
+        
+        ErrorDetails errorDetails = new ErrorDetails(
+                LocalDateTime.now(),
+                exception.getMessage(),
+                webRequest.getDescription(false),
+                "SOLICITUD_EN_CURSO");
+        
+        return new ResponseEntity<>(errorDetails, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(OrderInProgressException.class)
+    public ResponseEntity<ErrorDetails> handleOrderInProgressException(
+            OrderInProgressException exception, WebRequest webRequest) {
+        
+        ErrorDetails errorDetails = new ErrorDetails(
+                LocalDateTime.now(),
+                exception.getMessage(),
+                webRequest.getDescription(false),
+                "ORDEN_EN_CONFIRMACION");
+        
+        return new ResponseEntity<>(errorDetails, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(FeignException.class)
     public ResponseEntity<ErrorDetails> handleFeignException(
             FeignException exception, WebRequest webRequest) {
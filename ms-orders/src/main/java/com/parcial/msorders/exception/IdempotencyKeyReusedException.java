@@ -0,0 +1,15 @@
+package com.parcial.msorders.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * La clave Idempotency-Key ya se usó con otra orden (otro cliente o ítems)
+ */
+@ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+public class IdempotencyKeyReusedException extends RuntimeException {
+    
+    public IdempotencyKeyReusedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+package com.parcial.msorders.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * La orden todavía espera que el despachador del outbox reserve su stock y no se puede cambiar a mano
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class OrderInProgressException extends RuntimeException {
+    
+    public OrderInProgressException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,98 @@
+package com.parcial.msorders.exception;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.reactive.function.client.WebClientException;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Manejador global de excepciones para la API reactiva de órdenes (perfil reactive).
+ * Devuelve los mismos códigos de error que {@link GlobalExceptionHandler}.
+ */
+@RestControllerAdvice
+@Profile("reactive")
+public class ReactiveGlobalExceptionHandler {
+
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<ErrorDetails> handleResourceNotFoundException(
+            ResourceNotFoundException exception, ServerWebExchange exchange) {
+        return error(exception.getMessage(), exchange, "RECURSO_NO_ENCONTRADO", HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(InsufficientStockException.class)
+    public ResponseEntity<ErrorDetails> handleInsufficientStockException(
+            InsufficientStockException exception, ServerWebExchange exchange) {
+        return error(exception.getMessage(), exchange, "STOCK_INSUFICIENTE", HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<ErrorDetails> handleBadRequestException(
+            BadRequestException exception, ServerWebExchange exchange) {
+        return error(exception.getMessage(), exchange, "SOLICITUD_INVALIDA", HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(WebClientException.class)
+    public ResponseEntity<ErrorDetails> handleWebClientException(
+            WebClientException exception, ServerWebExchange exchange) {
+        return error("Error al comunicarse con el servicio de productos: " + exception.getMessage(),
+                exchange, "ERROR_COMUNICACION_SERVICIO", HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ValidationErrorDetails> handleValidationException(
+            WebExchangeBindException exception, ServerWebExchange exchange) {
+        
+        Map<String, String> errors = new HashMap<>();
+        exception.getBindingResult().getAllErrors().forEach((error) -> {
+            String fieldName = ((FieldError) error).getField();
+            String message = error.getDefaultMessage();
+            errors.put(fieldName, message);
+        });
+        
+        ValidationErrorDetails errorDetails = new ValidationErrorDetails(
+                LocalDateTime.now(),
+                "Error de validación",
+                description(exchange),
+                "ERROR_VALIDACION",
+                errors);
+        
+        return new ResponseEntity<>(errorDetails, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<ErrorDetails> handleResponseStatusException(
+            ResponseStatusException exception, ServerWebExchange exchange) {
+        ErrorDetails errorDetails = new ErrorDetails(
+                LocalDateTime.now(),
+                exception.getReason(),
+                description(exchange),
+                "ERROR_SOLICITUD");
+        return new ResponseEntity<>(errorDetails, exception.getStatusCode());
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ErrorDetails> handleGlobalException(
+            Exception exception, ServerWebExchange exchange) {
+        return error(exception.getMessage(), exchange, "ERROR_INTERNO_SERVIDOR", HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    private ResponseEntity<ErrorDetails> error(
+            String message, ServerWebExchange exchange, String errorCode, HttpStatus status) {
+        ErrorDetails errorDetails = new ErrorDetails(LocalDateTime.now(), message, description(exchange), errorCode);
+        return new ResponseEntity<>(errorDetails, status);
+    }
+
+    private String description(ServerWebExchange exchange) {
+        return "uri=" + exchange.getRequest().getPath().value();
+    }
+}
@@ -0,0 +1,15 @@
+package com.parcial.msorders.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Otra petición con la misma Idempotency-Key sigue en curso y no terminó a tiempo
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class RequestInProgressException extends RuntimeException {
+    
+    public RequestInProgressException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,26 @@
+package com.parcial.msorders.model;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normaliza el nombre del cliente para buscarlo por índice: minúsculas, sin acentos
+ * y con los espacios colapsados ("  José  PÉREZ " queda "jose perez").
+ */
+public final class CustomerKey {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    private CustomerKey() {
+    }
+
+    public static String of(String customer) {
+        if (customer == null) {
+            return null;
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(customer, Normalizer.Form.NFD)).replaceAll("");
+        return SPACES.matcher(folded.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+}
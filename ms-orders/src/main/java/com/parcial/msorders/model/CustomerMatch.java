@@ -0,0 +1,23 @@
+package com.parcial.msorders.model;
+
+/**
+ * Modo de comparación del cliente en las búsquedas de órdenes.
+ * PREFIX: la clave del cliente empieza con el texto buscado; EXACT: es igual.
+ * Los dos se resuelven con un LIKE sin comodín inicial, que usa el índice de customer_key
+ */
+public enum CustomerMatch {
+    PREFIX,
+    EXACT;
+
+    /**
+     * Arma el patrón LIKE para la clave normalizada del texto buscado
+     * Escapa los comodines con '\', el carácter de escape por defecto de Spring Data y de MySQL
+     */
+    public String pattern(String customer) {
+        String escaped = CustomerKey.of(customer)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return this == PREFIX ? escaped + "%" : escaped;
+    }
+}
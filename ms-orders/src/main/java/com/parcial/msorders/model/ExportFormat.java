@@ -0,0 +1,25 @@
+package com.parcial.msorders.model;
+
+/**
+ * Formato de las exportaciones: NDJSON (un objeto JSON por línea) o CSV con encabezado.
+ */
+public enum ExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
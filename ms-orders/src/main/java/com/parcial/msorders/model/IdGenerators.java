@@ -0,0 +1,24 @@
+package com.parcial.msorders.model;
+
+/**
+ * Generadores de IDs de las órdenes, sus ítems y los eventos del outbox.
+ * Los IDs salen de la tabla id_generators en bloques de ALLOCATION_SIZE (optimizador pooled-lo):
+ * la fila guarda el primer valor del siguiente bloque y cada instancia reparte su bloque en memoria,
+ * lo que permite insertar la orden y sus ítems en lotes JDBC.
+ * El stack reactivo reserva sus bloques sobre las mismas filas (ReactiveIdGenerator).
+ */
+public final class IdGenerators {
+
+    public static final String TABLE = "id_generators";
+    public static final String NAME_COLUMN = "sequence_name";
+    public static final String VALUE_COLUMN = "next_val";
+
+    public static final String ORDERS = "orders";
+    public static final String ORDER_ITEMS = "order_items";
+    public static final String ORDER_OUTBOX = "order_outbox";
+
+    public static final int ALLOCATION_SIZE = 50;
+
+    private IdGenerators() {
+    }
+}
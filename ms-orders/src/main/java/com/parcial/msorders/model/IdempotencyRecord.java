@@ -0,0 +1,54 @@
+package com.parcial.msorders.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Clave Idempotency-Key de POST /api/orders, compartida entre instancias.
+ * Mientras la orden se crea la fila no tiene respuesta (statusCode nulo) y vence a los
+ * in-flight-timeout; al terminar guarda la respuesta y vence a los orders.idempotency.ttl.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyRecord {
+
+    @Id
+    @Column(name = "idempotency_key")
+    private String key;
+
+    /**
+     * Huella de la orden pedida; otra orden con la misma clave se rechaza
+     */
+    @NotNull(message = "La huella es obligatoria")
+    private String fingerprint;
+
+    /**
+     * Código HTTP de la respuesta guardada; nulo mientras la orden se está creando
+     */
+    private Integer statusCode;
+
+    /**
+     * Orden devuelta, en JSON
+     */
+    @Lob
+    private String responseBody;
+
+    @NotNull(message = "La fecha de creación es obligatoria")
+    private LocalDateTime createdAt;
+
+    @NotNull(message = "La fecha de vencimiento es obligatoria")
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+}
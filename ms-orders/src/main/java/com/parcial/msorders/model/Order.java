@@ -19,7 +19,11 @@ import java.util.List;
  * Implementa el patrón Builder mediante la anotación @Builder de Lombok.
  */
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_date_id", columnList = "date, id"),
+        @Index(name = "idx_orders_customer_key_status_date", columnList = "customer_key, status, date"),
+        @Index(name = "idx_orders_status_date", columnList = "status, date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -30,7 +34,10 @@ public class Order {
      * Identificador único de la orden
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = IdGenerators.ORDERS)
+    @TableGenerator(name = IdGenerators.ORDERS, table = IdGenerators.TABLE,
+            pkColumnName = IdGenerators.NAME_COLUMN, valueColumnName = IdGenerators.VALUE_COLUMN,
+            pkColumnValue = IdGenerators.ORDERS, allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
     /**
@@ -39,6 +46,13 @@ public class Order {
     @NotBlank(message = "El nombre del cliente es obligatorio")
     private String customer;
 
+    /**
+     * Nombre del cliente normalizado (ver {@link CustomerKey}); se calcula solo al guardar
+     * y es la columna que usan las búsquedas por cliente
+     */
+    @Column(name = "customer_key")
+    private String customerKey;
+
     /**
      * Fecha y hora de creación de la orden
      */
@@ -64,4 +78,10 @@ public class Order {
     @NotNull(message = "El total es obligatorio")
     @Positive(message = "El total debe ser mayor que cero")
     private BigDecimal total;
-} 
\ No newline at end of file
+
+    @PrePersist
+    @PreUpdate
+    void updateCustomerKey() {
+        customerKey = CustomerKey.of(customer);
+    }
+}
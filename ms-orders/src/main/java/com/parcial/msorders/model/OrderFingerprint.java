@@ -0,0 +1,35 @@
+package com.parcial.msorders.model;
+
+import com.parcial.msorders.dto.OrderDTO;
+import com.parcial.msorders.dto.OrderItemDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Huella de una orden pedida (cliente, productos y cantidades) para detectar una Idempotency-Key
+ * reutilizada con otra orden. Precios, fecha e IDs no cuentan: los completa el servidor.
+ */
+public final class OrderFingerprint {
+
+    private OrderFingerprint() {
+    }
+
+    public static String of(OrderDTO order) {
+        StringBuilder canonical = new StringBuilder(String.valueOf(order.getCustomer()));
+        if (order.getItems() != null) {
+            for (OrderItemDTO item : order.getItems()) {
+                canonical.append('\n').append(item.getProductId()).append(':').append(item.getQuantity());
+            }
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no está disponible", e);
+        }
+    }
+}
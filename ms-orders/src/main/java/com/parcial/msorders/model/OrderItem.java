@@ -14,7 +14,10 @@ import java.math.BigDecimal;
  * Entidad que representa un ítem de una orden de compra.
  */
 @Entity
-@Table(name = "order_items")
+@Table(name = "order_items", indexes = {
+        @Index(name = "idx_order_items_order_id", columnList = "order_id"),
+        @Index(name = "idx_order_items_product_id", columnList = "product_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -22,7 +25,10 @@ import java.math.BigDecimal;
 public class OrderItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = IdGenerators.ORDER_ITEMS)
+    @TableGenerator(name = IdGenerators.ORDER_ITEMS, table = IdGenerators.TABLE,
+            pkColumnName = IdGenerators.NAME_COLUMN, valueColumnName = IdGenerators.VALUE_COLUMN,
+            pkColumnValue = IdGenerators.ORDER_ITEMS, allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,38 @@
+package com.parcial.msorders.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+
+/**
+ * Fila de la tabla order_items para la variante reactiva (R2DBC).
+ */
+@Table("order_items")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderItemRecord {
+
+    @Id
+    private Long id;
+
+    @Column("order_id")
+    private Long orderId;
+
+    private Long productId;
+
+    private String productName;
+
+    private Integer quantity;
+
+    private BigDecimal unitPrice;
+
+    private BigDecimal subtotal;
+}
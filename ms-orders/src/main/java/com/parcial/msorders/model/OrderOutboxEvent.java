@@ -0,0 +1,64 @@
+package com.parcial.msorders.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento del outbox: una orden aceptada en estado PENDING que falta confirmar contra el servicio de productos.
+ * Se guarda en la misma transacción que la orden y se borra en la misma transacción que la confirma
+ * o la cancela, así ninguna orden aceptada queda sin despachar ni se despacha dos veces.
+ * Un despachador lo toma por un tiempo (claimedBy hasta claimedUntil); si se cae, otro lo retoma al vencer.
+ */
+@Entity
+@Table(name = "order_outbox", indexes = {
+        @Index(name = "uk_order_outbox_order_id", columnList = "order_id", unique = true),
+        @Index(name = "idx_order_outbox_available_at", columnList = "available_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = IdGenerators.ORDER_OUTBOX)
+    @TableGenerator(name = IdGenerators.ORDER_OUTBOX, table = IdGenerators.TABLE,
+            pkColumnName = IdGenerators.NAME_COLUMN, valueColumnName = IdGenerators.VALUE_COLUMN,
+            pkColumnValue = IdGenerators.ORDER_OUTBOX, allocationSize = IdGenerators.ALLOCATION_SIZE)
+    private Long id;
+
+    /**
+     * Orden a confirmar; también forma la referencia de la reserva (order-<id>)
+     */
+    @NotNull(message = "El ID de la orden es obligatorio")
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @NotNull(message = "La fecha de creación es obligatoria")
+    private LocalDateTime createdAt;
+
+    /**
+     * Antes de esta fecha el evento no se despacha (espera entre reintentos)
+     */
+    @NotNull(message = "La fecha de disponibilidad es obligatoria")
+    @Column(name = "available_at")
+    private LocalDateTime availableAt;
+
+    /**
+     * Intentos fallidos por errores del servicio de productos o de la base
+     */
+    private int attempts;
+
+    /**
+     * Despachador que tiene tomado el evento y hasta cuándo
+     */
+    private String claimedBy;
+
+    private LocalDateTime claimedUntil;
+}
@@ -0,0 +1,39 @@
+package com.parcial.msorders.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Fila de la tabla orders para la variante reactiva (R2DBC).
+ * Mapea las mismas columnas que la entidad JPA {@link Order}; los ítems se
+ * guardan y leen aparte porque R2DBC no maneja relaciones.
+ */
+@Table("orders")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderRecord {
+
+    @Id
+    private Long id;
+
+    private String customer;
+
+    @Column("customer_key")
+    private String customerKey;
+
+    private LocalDateTime date;
+
+    private OrderStatus status;
+
+    private BigDecimal total;
+}
@@ -0,0 +1,51 @@
+package com.parcial.msorders.repository;
+
+import com.parcial.msorders.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+    
+    /**
+     * Inserta la clave en curso (sin respuesta); si otra petición la insertó antes falla por clave duplicada.
+     * Es un INSERT explícito porque save() con el ID asignado haría un merge y pisaría la fila existente
+     */
+    @Modifying
+    @Query("insert into IdempotencyRecord (key, fingerprint, createdAt, expiresAt)"
+            + " values (:key, :fingerprint, :createdAt, :expiresAt)")
+    int insertInFlight(@Param("key") String key, @Param("fingerprint") String fingerprint,
+                       @Param("createdAt") LocalDateTime createdAt, @Param("expiresAt") LocalDateTime expiresAt);
+    
+    /**
+     * Borra la clave solo si ya venció (respuesta vieja o petición abandonada)
+     */
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.key = :key and r.expiresAt < :now")
+    int deleteIfExpired(@Param("key") String key, @Param("now") LocalDateTime now);
+    
+    /**
+     * Guarda la respuesta de una clave en curso y le da el vencimiento definitivo
+     */
+    @Modifying
+    @Query("update IdempotencyRecord r set r.statusCode = :statusCode, r.responseBody = :responseBody,"
+            + " r.expiresAt = :expiresAt where r.key = :key and r.statusCode is null")
+    int complete(@Param("key") String key, @Param("statusCode") int statusCode,
+                 @Param("responseBody") String responseBody, @Param("expiresAt") LocalDateTime expiresAt);
+    
+    /**
+     * Libera una clave en curso cuya creación falló
+     */
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.key = :key and r.statusCode is null")
+    int deleteInFlight(@Param("key") String key);
+    
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
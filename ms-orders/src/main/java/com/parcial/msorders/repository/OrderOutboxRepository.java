@@ -0,0 +1,58 @@
+package com.parcial.msorders.repository;
+
+import com.parcial.msorders.model.OrderOutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Los eventos se toman en dos pasos: findDispatchableIds elige candidatos y claim los marca con
+ * el token del despachador solo si nadie los tiene tomados; findByClaimedBy devuelve los que
+ * efectivamente quedaron para ese token. Así dos despachadores nunca trabajan el mismo evento
+ * a la vez sin depender de SELECT ... FOR UPDATE SKIP LOCKED.
+ */
+@Repository
+public interface OrderOutboxRepository extends JpaRepository<OrderOutboxEvent, Long> {
+    
+    /**
+     * Eventos listos de una partición (order_id mod partitions), los más viejos primero
+     */
+    @Query("select e.id from OrderOutboxEvent e where mod(e.orderId, :partitions) = :partition"
+            + " and e.availableAt <= :now and (e.claimedUntil is null or e.claimedUntil < :now) order by e.id")
+    List<Long> findDispatchableIds(@Param("partitions") int partitions, @Param("partition") int partition,
+                                   @Param("now") LocalDateTime now, Pageable pageable);
+    
+    @Modifying
+    @Query("update OrderOutboxEvent e set e.claimedBy = :owner, e.claimedUntil = :until"
+            + " where e.id in :ids and (e.claimedUntil is null or e.claimedUntil < :now)")
+    int claim(@Param("ids") Collection<Long> ids, @Param("owner") String owner,
+              @Param("until") LocalDateTime until, @Param("now") LocalDateTime now);
+    
+    List<OrderOutboxEvent> findByClaimedBy(String owner);
+    
+    boolean existsByOrderId(Long orderId);
+    
+    /**
+     * Borra los eventos despachados, solo si siguen tomados por el mismo token
+     */
+    @Modifying
+    @Query("delete from OrderOutboxEvent e where e.id in :ids and e.claimedBy = :owner")
+    int deleteClaimed(@Param("ids") Collection<Long> ids, @Param("owner") String owner);
+    
+    /**
+     * Devuelve los eventos para reintentarlos desde availableAt y cuenta el intento fallido
+     */
+    @Modifying
+    @Query("update OrderOutboxEvent e set e.claimedBy = null, e.claimedUntil = null,"
+            + " e.attempts = e.attempts + 1, e.availableAt = :availableAt"
+            + " where e.id in :ids and e.claimedBy = :owner")
+    int retryLater(@Param("ids") Collection<Long> ids, @Param("owner") String owner,
+                   @Param("availableAt") LocalDateTime availableAt);
+}
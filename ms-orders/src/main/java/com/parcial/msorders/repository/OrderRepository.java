@@ -1,18 +1,143 @@
 package com.parcial.msorders.repository;
 
+import com.parcial.msorders.dto.OrderSummaryDTO;
 import com.parcial.msorders.model.Order;
 import com.parcial.msorders.model.OrderStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Las búsquedas paginadas devuelven solo los IDs de la página; las órdenes con sus
+ * ítems se cargan después con {@link #findAllWithItemsByIdIn} en una sola consulta.
+ * Así la paginación se hace en la base sobre órdenes (no sobre filas del join) y una
+ * página cuesta siempre tres consultas: IDs, conteo e ítems.
+ * Los listados en modo resumen usan las consultas findSummaries*, que proyectan
+ * directamente a {@link OrderSummaryDTO} sin cargar entidades.
+ * Las consultas findIdsAfter* recorren las órdenes por (date, id) sin offset ni conteo;
+ * se apoyan en el índice compuesto idx_orders_date_id.
+ * Los filtros por cliente reciben un patrón LIKE sobre customer_key armado con
+ * {@link com.parcial.msorders.model.CustomerMatch}, sin comodín inicial, para que usen
+ * el índice idx_orders_customer_key_status_date.
+ * Las consultas stream* son para la exportación: recorren las órdenes con un cursor de solo
+ * avance que trae EXPORT_FETCH_SIZE filas por viaje (en MySQL requiere useCursorFetch=true),
+ * y deben consumirse dentro de una transacción.
+ */
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
     
-    Page<Order> findByCustomerContainingIgnoreCase(String customer, Pageable pageable);
+    String EXPORT_FETCH_SIZE = "500";
+    
+    @Query(value = "select o.id from Order o",
+            countQuery = "select count(o) from Order o")
+    Page<Long> findIdPage(Pageable pageable);
+    
+    @Query(value = "select o.id from Order o"
+            + " where o.customerKey like :pattern escape :#{escapeCharacter()}",
+            countQuery = "select count(o) from Order o"
+            + " where o.customerKey like :pattern escape :#{escapeCharacter()}")
+    Page<Long> findIdPageByCustomer(@Param("pattern") String customerPattern, Pageable pageable);
+    
+    @Query(value = "select o.id from Order o where o.status = :status",
+            countQuery = "select count(o) from Order o where o.status = :status")
+    Page<Long> findIdPageByStatus(@Param("status") OrderStatus status, Pageable pageable);
+    
+    @Query(value = "select o.id from Order o where o.status = :status"
+            + " and o.customerKey like :pattern escape :#{escapeCharacter()}",
+            countQuery = "select count(o) from Order o where o.status = :status"
+            + " and o.customerKey like :pattern escape :#{escapeCharacter()}")
+    Page<Long> findIdPageByCustomerAndStatus(@Param("pattern") String customerPattern,
+                                             @Param("status") OrderStatus status, Pageable pageable);
+    
+    @Query("select o.id from Order o order by o.date, o.id")
+    List<Long> findFirstIds(Pageable pageable);
+    
+    /**
+     * IDs de las órdenes posteriores a (date, id) en el orden (date, id).
+     * La condición sobre date sola deja que la base empiece el recorrido del índice en esa fecha
+     */
+    @Query("select o.id from Order o where o.date >= :date and (o.date > :date or o.id > :id)"
+            + " order by o.date, o.id")
+    List<Long> findIdsAfter(@Param("date") LocalDateTime date, @Param("id") Long id, Pageable pageable);
+    
+    /**
+     * Siguiente tramo de órdenes sin customer_key, recorrido por id; lo usa el backfill
+     * @return Pares [id, customer]
+     */
+    @Query("select o.id, o.customer from Order o where o.customerKey is null and o.id > :afterId order by o.id")
+    List<Object[]> findWithoutCustomerKey(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Modifying
+    @Query("update Order o set o.customerKey = :customerKey where o.id = :id and o.customerKey is null")
+    int setCustomerKey(@Param("id") Long id, @Param("customerKey") String customerKey);
+    
+    /**
+     * Cambia el estado de las órdenes que siguen en el estado esperado; lo usa el despachador del outbox
+     * @return Cantidad de órdenes cambiadas (las que otro proceso cambió antes no se tocan)
+     */
+    @Modifying
+    @Query("update Order o set o.status = :target where o.id in :ids and o.status = :expected")
+    int transitionStatus(@Param("ids") Collection<Long> ids,
+                         @Param("expected") OrderStatus expected,
+                         @Param("target") OrderStatus target);
+    
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select o from Order o where o.date >= :from and o.date < :to order by o.date, o.id")
+    Stream<Order> streamByDateRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    /**
+     * Se apoya en idx_orders_status_date
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select o from Order o where o.status = :status and o.date >= :from and o.date < :to"
+            + " order by o.date, o.id")
+    Stream<Order> streamByStatusAndDateRange(@Param("status") OrderStatus status,
+                                             @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    @Query("select distinct o from Order o left join fetch o.items where o.id in :ids")
+    List<Order> findAllWithItemsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query(value = "select new com.parcial.msorders.dto.OrderSummaryDTO("
+            + "o.id, o.customer, o.date, o.status, o.total, size(o.items)) from Order o",
+            countQuery = "select count(o) from Order o")
+    Page<OrderSummaryDTO> findSummaries(Pageable pageable);
+    
+    @Query(value = "select new com.parcial.msorders.dto.OrderSummaryDTO("
+            + "o.id, o.customer, o.date, o.status, o.total, size(o.items)) from Order o"
+            + " where o.customerKey like :pattern escape :#{escapeCharacter()}",
+            countQuery = "select count(o) from Order o"
+            + " where o.customerKey like :pattern escape :#{escapeCharacter()}")
+    Page<OrderSummaryDTO> findSummariesByCustomer(@Param("pattern") String customerPattern, Pageable pageable);
     
-    Page<Order> findByStatus(OrderStatus status, Pageable pageable);
+    @Query(value = "select new com.parcial.msorders.dto.OrderSummaryDTO("
+            + "o.id, o.customer, o.date, o.status, o.total, size(o.items)) from Order o where o.status = :status",
+            countQuery = "select count(o) from Order o where o.status = :status")
+    Page<OrderSummaryDTO> findSummariesByStatus(@Param("status") OrderStatus status, Pageable pageable);
     
-    Page<Order> findByCustomerContainingIgnoreCaseAndStatus(String customer, OrderStatus status, Pageable pageable);
-} 
\ No newline at end of file
+    @Query(value = "select new com.parcial.msorders.dto.OrderSummaryDTO("
+            + "o.id, o.customer, o.date, o.status, o.total, size(o.items)) from Order o where o.status = :status"
+            + " and o.customerKey like :pattern escape :#{escapeCharacter()}",
+            countQuery = "select count(o) from Order o where o.status = :status"
+            + " and o.customerKey like :pattern escape :#{escapeCharacter()}")
+    Page<OrderSummaryDTO> findSummariesByCustomerAndStatus(@Param("pattern") String customerPattern,
+                                                           @Param("status") OrderStatus status,
+                                                           Pageable pageable);
+}
@@ -0,0 +1,16 @@
+package com.parcial.msorders.repository;
+
+import com.parcial.msorders.model.OrderItemRecord;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.util.Collection;
+
+@Repository
+public interface ReactiveOrderItemRepository extends R2dbcRepository<OrderItemRecord, Long> {
+    
+    Flux<OrderItemRecord> findByOrderId(Long orderId);
+    
+    Flux<OrderItemRecord> findByOrderIdIn(Collection<Long> orderIds);
+}
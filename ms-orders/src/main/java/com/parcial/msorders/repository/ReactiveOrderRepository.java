@@ -0,0 +1,27 @@
+package com.parcial.msorders.repository;
+
+import com.parcial.msorders.model.OrderRecord;
+import com.parcial.msorders.model.OrderStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface ReactiveOrderRepository extends R2dbcRepository<OrderRecord, Long> {
+    
+    Flux<OrderRecord> findAllBy(Pageable pageable);
+    
+    Flux<OrderRecord> findByCustomerKeyLike(String customerPattern, Pageable pageable);
+    
+    Mono<Long> countByCustomerKeyLike(String customerPattern);
+    
+    Flux<OrderRecord> findByStatus(OrderStatus status, Pageable pageable);
+    
+    Mono<Long> countByStatus(OrderStatus status);
+    
+    Flux<OrderRecord> findByCustomerKeyLikeAndStatus(String customerPattern, OrderStatus status, Pageable pageable);
+    
+    Mono<Long> countByCustomerKeyLikeAndStatus(String customerPattern, OrderStatus status);
+}
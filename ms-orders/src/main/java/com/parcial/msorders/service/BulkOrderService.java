@@ -0,0 +1,10 @@
+package com.parcial.msorders.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface BulkOrderService {
+    
+    void importOrders(InputStream input, OutputStream output) throws IOException;
+}
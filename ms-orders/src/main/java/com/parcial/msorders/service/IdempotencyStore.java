@@ -0,0 +1,26 @@
+package com.parcial.msorders.service;
+
+import com.parcial.msorders.dto.StoredOrderResponse;
+
+import java.util.function.Supplier;
+
+/**
+ * Registro de claves Idempotency-Key de POST /api/orders.
+ * orders.idempotency.store elige la implementación: memory (por instancia) o database (compartida)
+ */
+public interface IdempotencyStore {
+    
+    /**
+     * Crea la orden una sola vez por clave
+     * Si la clave ya tiene una respuesta guardada se devuelve esa, sin consultar productos ni crear nada;
+     * si otra petición con la clave está en curso, se espera su resultado. Si la creación falla,
+     * la clave se libera y el cliente puede reintentar
+     * @param key Valor del header Idempotency-Key
+     * @param fingerprint Huella de la orden pedida ({@link com.parcial.msorders.model.OrderFingerprint})
+     * @param action Creación de la orden
+     * @return La respuesta de la creación, nueva o guardada
+     * @throws com.parcial.msorders.exception.IdempotencyKeyReusedException si la clave se usó con otra orden
+     * @throws com.parcial.msorders.exception.RequestInProgressException si la petición en curso no terminó a tiempo
+     */
+    StoredOrderResponse execute(String key, String fingerprint, Supplier<StoredOrderResponse> action);
+}
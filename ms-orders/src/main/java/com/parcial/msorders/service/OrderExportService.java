@@ -0,0 +1,14 @@
+package com.parcial.msorders.service;
+
+import com.parcial.msorders.model.ExportFormat;
+import com.parcial.msorders.model.OrderStatus;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+public interface OrderExportService {
+    
+    void exportOrders(OrderStatus status, LocalDateTime from, LocalDateTime to, ExportFormat format,
+                      OutputStream output) throws IOException;
+}
@@ -1,23 +1,45 @@
 package com.parcial.msorders.service;
 
+import com.parcial.msorders.dto.BulkOrderResultDTO;
+import com.parcial.msorders.dto.CursorPage;
 import com.parcial.msorders.dto.OrderDTO;
+import com.parcial.msorders.dto.OrderSummaryDTO;
+import com.parcial.msorders.model.CustomerMatch;
 import com.parcial.msorders.model.OrderStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.List;
+
 public interface OrderService {
     
     OrderDTO createOrder(OrderDTO orderDTO);
     
+    OrderDTO acceptOrder(OrderDTO orderDTO);
+    
+    List<BulkOrderResultDTO> createOrders(List<OrderDTO> orders);
+    
     OrderDTO getOrderById(Long id);
     
     Page<OrderDTO> getAllOrders(Pageable pageable);
     
-    Page<OrderDTO> getOrdersByCustomer(String customer, Pageable pageable);
+    CursorPage<OrderDTO> getOrdersAfter(String cursor, int size);
+    
+    Page<OrderDTO> getOrdersByCustomer(String customer, CustomerMatch match, Pageable pageable);
     
     Page<OrderDTO> getOrdersByStatus(OrderStatus status, Pageable pageable);
     
-    Page<OrderDTO> getOrdersByCustomerAndStatus(String customer, OrderStatus status, Pageable pageable);
+    Page<OrderDTO> getOrdersByCustomerAndStatus(String customer, CustomerMatch match, OrderStatus status,
+                                                Pageable pageable);
     
     OrderDTO updateOrderStatus(Long id, OrderStatus status);
+    
+    Page<OrderSummaryDTO> getOrderSummaries(Pageable pageable);
+    
+    Page<OrderSummaryDTO> getOrderSummariesByCustomer(String customer, CustomerMatch match, Pageable pageable);
+    
+    Page<OrderSummaryDTO> getOrderSummariesByStatus(OrderStatus status, Pageable pageable);
+    
+    Page<OrderSummaryDTO> getOrderSummariesByCustomerAndStatus(String customer, CustomerMatch match,
+                                                              OrderStatus status, Pageable pageable);
 } 
\ No newline at end of file
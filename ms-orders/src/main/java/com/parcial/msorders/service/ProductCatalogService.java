@@ -0,0 +1,22 @@
+package com.parcial.msorders.service;
+
+import com.parcial.msorders.dto.ProductCacheStatsDTO;
+import com.parcial.msorders.dto.ProductDTO;
+import com.parcial.msorders.dto.StockCheckItemDTO;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface ProductCatalogService {
+    
+    Map<Long, ProductDTO> resolveProducts(List<StockCheckItemDTO> items);
+    
+    Map<Long, ProductDTO> findProducts(Collection<Long> productIds);
+    
+    void invalidate(Collection<Long> productIds);
+    
+    void invalidateAll();
+    
+    ProductCacheStatsDTO getCacheStats();
+}
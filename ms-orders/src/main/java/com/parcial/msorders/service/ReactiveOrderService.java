@@ -0,0 +1,26 @@
+package com.parcial.msorders.service;
+
+import com.parcial.msorders.dto.OrderDTO;
+import com.parcial.msorders.model.CustomerMatch;
+import com.parcial.msorders.model.OrderStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveOrderService {
+    
+    Mono<OrderDTO> createOrder(OrderDTO orderDTO);
+    
+    Mono<OrderDTO> getOrderById(Long id);
+    
+    Mono<Page<OrderDTO>> getAllOrders(Pageable pageable);
+    
+    Mono<Page<OrderDTO>> getOrdersByCustomer(String customer, CustomerMatch match, Pageable pageable);
+    
+    Mono<Page<OrderDTO>> getOrdersByStatus(OrderStatus status, Pageable pageable);
+    
+    Mono<Page<OrderDTO>> getOrdersByCustomerAndStatus(String customer, CustomerMatch match, OrderStatus status,
+                                                      Pageable pageable);
+    
+    Mono<OrderDTO> updateOrderStatus(Long id, OrderStatus status);
+}
@@ -0,0 +1,208 @@
+package com.parcial.msorders.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.parcial.msorders.dto.BulkOrderResultDTO;
+import com.parcial.msorders.dto.OrderDTO;
+import com.parcial.msorders.service.BulkOrderService;
+import com.parcial.msorders.service.OrderService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Carga masiva de órdenes: lee el cuerpo (NDJSON o un arreglo JSON) con el parser de streaming
+ * de Jackson, una orden a la vez, y las crea en tramos de orders.bulk.chunk-size órdenes.
+ * Cada tramo es una transacción ({@link OrderService#createOrders}); sus resultados se escriben
+ * como líneas NDJSON apenas termina, así la memoria usada depende del tramo y no del tamaño del cuerpo.
+ */
+@Service
+@Profile("!reactive")
+@RequiredArgsConstructor
+@Slf4j
+public class BulkOrderServiceImpl implements BulkOrderService {
+
+    private final OrderService orderService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Value("${orders.bulk.chunk-size:100}")
+    private int chunkSize;
+
+    @Override
+    public void importOrders(InputStream input, OutputStream output) throws IOException {
+        ObjectMapper writerMapper = objectMapper.copy().disable(SerializationFeature.INDENT_OUTPUT);
+        try (JsonParser parser = objectMapper.getFactory().createParser(input);
+             JsonGenerator generator = writerMapper.getFactory().createGenerator(output)) {
+            generator.setRootValueSeparator(null);
+            ChunkWriter writer = new ChunkWriter(generator, writerMapper);
+            List<OrderDTO> chunk = new ArrayList<>(chunkSize);
+            long index = 0;
+            try {
+                JsonToken token = parser.nextToken();
+                if (token == JsonToken.START_ARRAY) {
+                    token = parser.nextToken();
+                }
+                
+                while (token != null && token != JsonToken.END_ARRAY) {
+                    BulkOrderResultDTO invalid = bind(parser.readValueAsTree(), chunk);
+                    if (invalid != null) {
+                        // las rechazadas no entran al tramo; se escriben junto con él
+                        invalid.setIndex(index);
+                        writer.pending.add(invalid);
+                    } else {
+                        writer.indexes.add(index);
+                    }
+                    index++;
+                    
+                    if (writer.indexes.size() + writer.pending.size() == chunkSize) {
+                        writeChunk(chunk, writer);
+                    }
+                    token = parser.nextToken();
+                }
+            } catch (JsonProcessingException e) {
+                // JSON mal formado: no se puede seguir leyendo, pero lo leído hasta acá se procesa
+                writeChunk(chunk, writer);
+                writer.writeResult(BulkOrderResultDTO.builder()
+                        .index(index)
+                        .outcome(BulkOrderResultDTO.Outcome.REJECTED)
+                        .errorCode("JSON_INVALIDO")
+                        .message("Cuerpo mal formado a partir de la orden " + index + ": " + e.getOriginalMessage())
+                        .build());
+                generator.flush();
+                log.warn("Carga masiva cortada en la orden {}: {}", index, e.getOriginalMessage());
+                return;
+            }
+            writeChunk(chunk, writer);
+            log.info("Carga masiva terminada: {} órdenes leídas", index);
+        }
+    }
+
+    private void writeChunk(List<OrderDTO> chunk, ChunkWriter writer) throws IOException {
+        List<BulkOrderResultDTO> results = createChunk(chunk);
+        chunk.clear();
+        writer.write(results);
+    }
+
+    /**
+     * Convierte y valida una orden; si es válida la agrega al tramo y devuelve null
+     */
+    private BulkOrderResultDTO bind(JsonNode node, List<OrderDTO> chunk) {
+        if (!(node instanceof ObjectNode)) {
+            return invalidOrder("se esperaba un objeto JSON");
+        }
+        OrderDTO order;
+        try {
+            order = objectMapper.treeToValue(node, OrderDTO.class);
+        } catch (JsonProcessingException e) {
+            return invalidOrder(e.getOriginalMessage());
+        }
+        
+        Set<ConstraintViolation<OrderDTO>> violations = validator.validate(order);
+        if (!violations.isEmpty()) {
+            Map<String, String> errors = new LinkedHashMap<>();
+            violations.forEach(violation -> errors.put(violation.getPropertyPath().toString(), violation.getMessage()));
+            return BulkOrderResultDTO.builder()
+                    .outcome(BulkOrderResultDTO.Outcome.REJECTED)
+                    .errorCode("ERROR_VALIDACION")
+                    .message("Error de validación")
+                    .errors(errors)
+                    .build();
+        }
+        chunk.add(order);
+        return null;
+    }
+
+    private BulkOrderResultDTO invalidOrder(String reason) {
+        return BulkOrderResultDTO.builder()
+                .outcome(BulkOrderResultDTO.Outcome.REJECTED)
+                .errorCode("SOLICITUD_INVALIDA")
+                .message("Orden no válida: " + reason)
+                .build();
+    }
+
+    /**
+     * Crea el tramo; si falla entero (servicio de productos o base), todas sus órdenes quedan FAILED
+     */
+    private List<BulkOrderResultDTO> createChunk(List<OrderDTO> chunk) {
+        if (chunk.isEmpty()) {
+            return Collections.emptyList();
+        }
+        try {
+            return orderService.createOrders(chunk);
+        } catch (RuntimeException e) {
+            log.error("No se pudo crear un tramo de {} órdenes: {}", chunk.size(), e.getMessage());
+            List<BulkOrderResultDTO> failed = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                failed.add(BulkOrderResultDTO.builder()
+                        .outcome(BulkOrderResultDTO.Outcome.FAILED)
+                        .errorCode("ERROR_INTERNO_SERVIDOR")
+                        .message(e.getMessage())
+                        .build());
+            }
+            return failed;
+        }
+    }
+
+    /**
+     * Escribe los resultados de cada tramo en el orden del cuerpo y hace flush,
+     * así el cliente los recibe a medida que se crean
+     */
+    private static final class ChunkWriter {
+
+        private final JsonGenerator generator;
+        private final ObjectMapper mapper;
+        // posiciones de las órdenes del tramo en curso y rechazos de validación pendientes de escribir
+        private final List<Long> indexes = new ArrayList<>();
+        private final List<BulkOrderResultDTO> pending = new ArrayList<>();
+
+        private ChunkWriter(JsonGenerator generator, ObjectMapper mapper) {
+            this.generator = generator;
+            this.mapper = mapper;
+        }
+
+        private void write(List<BulkOrderResultDTO> results) throws IOException {
+            if (results.isEmpty() && pending.isEmpty()) {
+                return;
+            }
+            for (int i = 0; i < results.size(); i++) {
+                results.get(i).setIndex(indexes.get(i));
+            }
+            List<BulkOrderResultDTO> lines = new ArrayList<>(pending.size() + results.size());
+            lines.addAll(pending);
+            lines.addAll(results);
+            lines.sort((a, b) -> Long.compare(a.getIndex(), b.getIndex()));
+            for (BulkOrderResultDTO line : lines) {
+                writeResult(line);
+            }
+            generator.flush();
+            indexes.clear();
+            pending.clear();
+        }
+
+        private void writeResult(BulkOrderResultDTO result) throws IOException {
+            mapper.writeValue(generator, result);
+            generator.writeRaw('\n');
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package com.parcial.msorders.service.impl;
+
+import com.parcial.msorders.client.ProductClient;
+import com.parcial.msorders.dto.AvailabilityRequestDTO;
+import com.parcial.msorders.dto.ProductAvailabilityDTO;
+import com.parcial.msorders.dto.StockCheckItemDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.tracing.Link;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.TraceContext;
+import io.micrometer.tracing.Tracer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Consulta de disponibilidad de productos compartida entre órdenes concurrentes.
+ * Single-flight: mientras un producto está en consulta, las demás órdenes que lo piden esperan
+ * esa misma respuesta en lugar de hacer otra llamada. Micro-lotes: los productos distintos que
+ * llegan dentro de products.lookup.coalescing.window se piden juntos en una sola llamada de
+ * disponibilidad (hasta max-batch-size por llamada), que corre en el ejecutor de consultas.
+ * Se consulta con cantidad 1 y cada orden compara su propia cantidad con el stock devuelto;
+ * el resultado no se guarda al terminar la llamada (la caché de productos es aparte).
+ * La llamada corre fuera del hilo de las órdenes, en el span product-lookup-batch: hijo del span
+ * de la primera orden del lote y enlazado (span links) a los de las demás.
+ */
+@Component
+@Profile("!reactive")
+@Slf4j
+public class CoalescingProductLookup implements SmartLifecycle {
+
+    private static final Duration IDLE_POLL = Duration.ofMillis(100);
+    private static final String BATCH_SPAN = "product-lookup-batch";
+
+    private final ProductClient productClient;
+    private final AsyncTaskExecutor executor;
+    private final Tracer tracer;
+    private final boolean enabled;
+    private final Duration window;
+    private final int maxBatchSize;
+    private final ConcurrentMap<Long, Lookup> inFlight = new ConcurrentHashMap<>();
+    private final BlockingQueue<Lookup> queued = new LinkedBlockingQueue<>();
+    private final Counter coalesced;
+    private final DistributionSummary batchSizes;
+    private volatile boolean running;
+    private Thread collector;
+
+    public CoalescingProductLookup(
+            ProductClient productClient,
+            @Qualifier("productLookupExecutor") AsyncTaskExecutor executor,
+            MeterRegistry registry,
+            ObjectProvider<Tracer> tracer,
+            @Value("${products.lookup.coalescing.enabled:true}") boolean enabled,
+            @Value("${products.lookup.coalescing.window:PT0.002S}") Duration window,
+            @Value("${products.lookup.coalescing.max-batch-size:200}") int maxBatchSize) {
+        this.productClient = productClient;
+        this.executor = executor;
+        this.tracer = tracer.getIfAvailable(() -> Tracer.NOOP);
+        this.enabled = enabled;
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+        this.coalesced = Counter.builder("products.lookup.coalesced")
+                .description("Consultas de productos resueltas con una llamada ya en curso")
+                .register(registry);
+        this.batchSizes = DistributionSummary.builder("products.lookup.batch.size")
+                .description("Productos distintos por llamada de disponibilidad")
+                .register(registry);
+    }
+
+    /**
+     * Disponibilidad de varios productos, compartiendo las llamadas en curso
+     * @param productIds IDs a consultar
+     * @return Un resultado por producto distinto; los inexistentes vienen con found=false
+     */
+    public Map<Long, ProductAvailabilityDTO> lookup(Collection<Long> productIds) {
+        if (!enabled) {
+            return fetch(new ArrayList<>(new LinkedHashSet<>(productIds)));
+        }
+        Map<Long, CompletableFuture<ProductAvailabilityDTO>> pending = new LinkedHashMap<>();
+        for (Long productId : productIds) {
+            pending.computeIfAbsent(productId, this::join);
+        }
+        if (!running) {
+            // Detenido (o deteniéndose): lo que quedó en la cola se consulta en este hilo
+            drain();
+        }
+
+        Map<Long, ProductAvailabilityDTO> availability = new HashMap<>();
+        try {
+            for (Map.Entry<Long, CompletableFuture<ProductAvailabilityDTO>> entry : pending.entrySet()) {
+                availability.put(entry.getKey(), entry.getValue().get());
+            }
+            return availability;
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Consulta de productos interrumpida", e);
+        }
+    }
+
+    /**
+     * Los pedidos posteriores de estos productos no se suman a las consultas en curso, que pueden
+     * traer datos anteriores a un cambio; quienes ya esperaban reciben igual su resultado
+     */
+    public void forget(Collection<Long> productIds) {
+        productIds.forEach(inFlight::remove);
+    }
+
+    public void forgetAll() {
+        inFlight.clear();
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        collector = new Thread(this::collect, "product-lookup-batcher");
+        collector.setDaemon(true);
+        collector.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (collector == null) {
+            return;
+        }
+        collector.interrupt();
+        try {
+            collector.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        drain();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Se suma a la consulta en curso del producto o encola una nueva
+     */
+    private CompletableFuture<ProductAvailabilityDTO> join(Long productId) {
+        Span caller = tracer.currentSpan();
+        Lookup created = new Lookup(productId, caller == null ? null : caller.context());
+        Lookup existing = inFlight.putIfAbsent(productId, created);
+        if (existing != null) {
+            coalesced.increment();
+            return existing.result;
+        }
+        queued.add(created);
+        return created.result;
+    }
+
+    /**
+     * Arma los lotes: el primer producto abre la ventana y se junta lo que llegue hasta que cierre
+     * o se llene el lote; si ya había cola, el lote se llena sin esperar
+     */
+    private void collect() {
+        List<Lookup> batch = new ArrayList<>();
+        try {
+            while (running) {
+                Lookup first = queued.poll(IDLE_POLL.toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + window.toNanos();
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    Lookup next = remaining > 0 ? queued.poll(remaining, TimeUnit.NANOSECONDS) : queued.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                dispatch(batch);
+                batch = new ArrayList<>();
+            }
+        } catch (InterruptedException e) {
+            // Lo juntado vuelve a la cola y lo consulta stop()
+            queued.addAll(batch);
+        }
+    }
+
+    private void drain() {
+        List<Lookup> batch = new ArrayList<>();
+        queued.drainTo(batch);
+        for (int from = 0; from < batch.size(); from += maxBatchSize) {
+            complete(batch.subList(from, Math.min(from + maxBatchSize, batch.size())));
+        }
+    }
+
+    /**
+     * Manda el lote al ejecutor; si está saturado, la llamada se hace en el hilo que arma los lotes
+     */
+    private void dispatch(List<Lookup> batch) {
+        try {
+            executor.execute(() -> complete(batch));
+        } catch (TaskRejectedException e) {
+            complete(batch);
+        }
+    }
+
+    /**
+     * Consulta el lote y entrega el resultado (o el error) a todas las órdenes que lo esperan
+     * Cada producto sale de inFlight antes de completarse: los pedidos posteriores hacen una consulta nueva
+     */
+    private void complete(List<Lookup> batch) {
+        batchSizes.record(batch.size());
+        Span span = batchSpan(batch);
+        try (Tracer.SpanInScope scope = tracer.withSpan(span)) {
+            Map<Long, ProductAvailabilityDTO> availability = fetch(batch.stream()
+                    .map(lookup -> lookup.productId)
+                    .collect(Collectors.toList()));
+            for (Lookup lookup : batch) {
+                inFlight.remove(lookup.productId, lookup);
+                lookup.result.complete(availability.get(lookup.productId));
+            }
+        } catch (RuntimeException e) {
+            log.debug("Falló la consulta de {} productos: {}", batch.size(), e.getMessage());
+            span.error(e);
+            for (Lookup lookup : batch) {
+                inFlight.remove(lookup.productId, lookup);
+                lookup.result.completeExceptionally(e);
+            }
+        } finally {
+            span.end();
+        }
+    }
+
+    /**
+     * Span del lote: hijo del span de la primera orden que lo pidió y con un enlace a cada una de las demás
+     */
+    private Span batchSpan(List<Lookup> batch) {
+        Span.Builder builder = tracer.spanBuilder()
+                .name(BATCH_SPAN)
+                .tag("products.count", batch.size());
+        Map<String, TraceContext> callers = new LinkedHashMap<>();
+        for (Lookup lookup : batch) {
+            if (lookup.caller != null) {
+                callers.putIfAbsent(lookup.caller.spanId(), lookup.caller);
+            }
+        }
+        if (callers.isEmpty()) {
+            return builder.setNoParent().start();
+        }
+        List<TraceContext> contexts = new ArrayList<>(callers.values());
+        builder.setParent(contexts.get(0));
+        contexts.subList(1, contexts.size()).forEach(context -> builder.addLink(new Link(context)));
+        return builder.start();
+    }
+
+    private Map<Long, ProductAvailabilityDTO> fetch(List<Long> productIds) {
+        List<ProductAvailabilityDTO> response = productClient.checkAvailability(new AvailabilityRequestDTO(
+                productIds.stream()
+                        .map(productId -> new StockCheckItemDTO(productId, 1))
+                        .collect(Collectors.toList()))).getBody();
+        Map<Long, ProductAvailabilityDTO> availability = response == null
+                ? new HashMap<>()
+                : response.stream().collect(Collectors.toMap(
+                        ProductAvailabilityDTO::getProductId, Function.identity(), (first, second) -> first, HashMap::new));
+        for (Long productId : productIds) {
+            availability.computeIfAbsent(productId, id -> ProductAvailabilityDTO.builder()
+                    .productId(id)
+                    .found(false)
+                    .available(false)
+                    .build());
+        }
+        return availability;
+    }
+
+    private RuntimeException unwrap(Throwable cause) {
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        return new IllegalStateException("Error al consultar productos", cause);
+    }
+
+    private static final class Lookup {
+
+        private final Long productId;
+        private final TraceContext caller;
+        private final CompletableFuture<ProductAvailabilityDTO> result = new CompletableFuture<>();
+
+        private Lookup(Long productId, TraceContext caller) {
+            this.productId = productId;
+            this.caller = caller;
+        }
+    }
+}
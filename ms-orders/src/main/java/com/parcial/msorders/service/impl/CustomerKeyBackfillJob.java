@@ -0,0 +1,68 @@
+package com.parcial.msorders.service.impl;
+
+import com.parcial.msorders.model.CustomerKey;
+import com.parcial.msorders.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Completa customer_key en las órdenes creadas antes de que existiera la columna.
+ * Avanza por id en tramos chicos, cada uno en su propia transacción corta: solo bloquea
+ * las filas del tramo y entre tramos deja pasar al resto del tráfico.
+ * Las órdenes nuevas ya se guardan con la clave, así que al terminar no vuelve a correr
+ * hasta el próximo arranque.
+ */
+@Component
+@Profile("!reactive")
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerKeyBackfillJob {
+
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${orders.customer-key.backfill.enabled:true}")
+    private boolean enabled;
+
+    @Value("${orders.customer-key.backfill.batch-size:500}")
+    private int batchSize;
+
+    private volatile long lastId;
+    private volatile long updated;
+    private volatile boolean finished;
+
+    @Scheduled(fixedDelayString = "${orders.customer-key.backfill.interval:PT0.2S}")
+    public void backfillNextChunk() {
+        if (!enabled || finished) {
+            return;
+        }
+        Integer processed = transactionTemplate.execute(status -> {
+            List<Object[]> rows = orderRepository.findWithoutCustomerKey(lastId, PageRequest.ofSize(batchSize));
+            for (Object[] row : rows) {
+                orderRepository.setCustomerKey((Long) row[0], CustomerKey.of((String) row[1]));
+            }
+            if (!rows.isEmpty()) {
+                lastId = (Long) rows.get(rows.size() - 1)[0];
+            }
+            return rows.size();
+        });
+
+        if (processed == null || processed == 0) {
+            finished = true;
+            if (updated > 0) {
+                log.info("Backfill de customer_key terminado: {} órdenes actualizadas", updated);
+            }
+            return;
+        }
+        updated += processed;
+        log.debug("Backfill de customer_key: {} órdenes actualizadas (hasta id {})", updated, lastId);
+    }
+}
@@ -0,0 +1,154 @@
+package com.parcial.msorders.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.parcial.msorders.dto.OrderDTO;
+import com.parcial.msorders.dto.StoredOrderResponse;
+import com.parcial.msorders.exception.IdempotencyKeyReusedException;
+import com.parcial.msorders.exception.RequestInProgressException;
+import com.parcial.msorders.model.IdempotencyRecord;
+import com.parcial.msorders.repository.IdempotencyRecordRepository;
+import com.parcial.msorders.service.IdempotencyStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+/**
+ * Claves Idempotency-Key en la tabla idempotency_keys, compartidas entre instancias.
+ * La primera petición inserta la clave sin respuesta (la clave primaria decide entre peticiones
+ * concurrentes de cualquier instancia), crea la orden y guarda la respuesta. Los duplicados leen
+ * la fila: si tiene respuesta la devuelven y si sigue en curso la vuelven a leer cada POLL_INTERVAL
+ * hasta in-flight-timeout. Cada paso es una transacción corta, así la fila en curso es visible
+ * para las demás instancias.
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "orders.idempotency.store", havingValue = "database")
+@RequiredArgsConstructor
+@Slf4j
+public class DatabaseIdempotencyStore implements IdempotencyStore {
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(50);
+
+    private final IdempotencyRecordRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${orders.idempotency.ttl:PT24H}")
+    private Duration ttl;
+
+    @Value("${orders.idempotency.in-flight-timeout:PT30S}")
+    private Duration inFlightTimeout;
+
+    @Override
+    public StoredOrderResponse execute(String key, String fingerprint, Supplier<StoredOrderResponse> action) {
+        long deadline = System.nanoTime() + inFlightTimeout.toNanos();
+        while (!tryClaim(key, fingerprint)) {
+            IdempotencyRecord record = repository.findById(key).orElse(null);
+            if (record == null) {
+                // La clave se liberó o venció entre el intento y la lectura: se vuelve a intentar
+                continue;
+            }
+            if (!fingerprint.equals(record.getFingerprint())) {
+                throw new IdempotencyKeyReusedException("La clave de idempotencia " + key + " ya se usó con otra orden");
+            }
+            if (record.getStatusCode() != null) {
+                return replay(record);
+            }
+            if (System.nanoTime() > deadline) {
+                throw new RequestInProgressException("La orden con clave de idempotencia " + key + " sigue en proceso");
+            }
+            try {
+                Thread.sleep(POLL_INTERVAL.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RequestInProgressException("La orden con clave de idempotencia " + key + " sigue en proceso");
+            }
+        }
+
+        StoredOrderResponse response;
+        try {
+            response = action.get();
+        } catch (RuntimeException | Error e) {
+            release(key);
+            throw e;
+        }
+        String body = write(response.getOrder());
+        transactionTemplate.executeWithoutResult(status -> repository.complete(
+                key, response.getStatus(), body, LocalDateTime.now().plus(ttl)));
+        return response;
+    }
+
+    /**
+     * Borra las claves vencidas; las vigentes no se tocan
+     */
+    @Scheduled(fixedDelayString = "${orders.idempotency.purge-interval:PT5M}")
+    public void purgeExpired() {
+        Integer deleted = transactionTemplate.execute(status -> repository.deleteExpired(LocalDateTime.now()));
+        if (deleted != null && deleted > 0) {
+            log.debug("Claves de idempotencia vencidas borradas: {}", deleted);
+        }
+    }
+
+    /**
+     * Inserta la clave en curso, antes borrándola si venció
+     * @return false si otra petición ya tiene la clave
+     */
+    private boolean tryClaim(String key, String fingerprint) {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                repository.deleteIfExpired(key, now);
+                // Si la clave ya está se evita el INSERT; la clave primaria solo resuelve las carreras
+                if (repository.existsById(key)) {
+                    return false;
+                }
+                repository.insertInFlight(key, fingerprint, now, now.plus(inFlightTimeout));
+                return true;
+            }));
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Libera la clave si la creación falló; si no se puede, la fila vence sola a los in-flight-timeout
+     */
+    private void release(String key) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> repository.deleteInFlight(key));
+        } catch (RuntimeException e) {
+            log.warn("No se pudo liberar la clave de idempotencia {}: {}", key, e.getMessage());
+        }
+    }
+
+    private StoredOrderResponse replay(IdempotencyRecord record) {
+        try {
+            return StoredOrderResponse.builder()
+                    .status(record.getStatusCode())
+                    .order(objectMapper.readValue(record.getResponseBody(), OrderDTO.class))
+                    .replayed(true)
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo leer la respuesta guardada de la clave " + record.getKey(), e);
+        }
+    }
+
+    private String write(OrderDTO order) {
+        try {
+            return objectMapper.writeValueAsString(order);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo guardar la respuesta de la orden " + order.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.parcial.msorders.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.parcial.msorders.dto.StoredOrderResponse;
+import com.parcial.msorders.exception.IdempotencyKeyReusedException;
+import com.parcial.msorders.exception.RequestInProgressException;
+import com.parcial.msorders.service.IdempotencyStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Claves Idempotency-Key en memoria, válidas solo dentro de esta instancia.
+ * Cada clave guarda la huella de la orden y un futuro con la respuesta: la primera petición
+ * lo completa y los duplicados concurrentes esperan ese mismo futuro en lugar de crear otra orden.
+ * La caché está acotada en cantidad (orders.idempotency.maximum-size) y cada clave caduca a los
+ * orders.idempotency.ttl de creada.
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "orders.idempotency.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final Cache<String, Entry> entries;
+    private final Duration inFlightTimeout;
+
+    public InMemoryIdempotencyStore(
+            @Value("${orders.idempotency.maximum-size:10000}") long maximumSize,
+            @Value("${orders.idempotency.ttl:PT24H}") Duration ttl,
+            @Value("${orders.idempotency.in-flight-timeout:PT30S}") Duration inFlightTimeout) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.inFlightTimeout = inFlightTimeout;
+    }
+
+    @Override
+    public StoredOrderResponse execute(String key, String fingerprint, Supplier<StoredOrderResponse> action) {
+        Entry created = new Entry(fingerprint);
+        Entry existing = entries.asMap().putIfAbsent(key, created);
+        if (existing != null) {
+            return replay(key, fingerprint, existing);
+        }
+        try {
+            StoredOrderResponse response = action.get();
+            created.response.complete(response);
+            return response;
+        } catch (RuntimeException | Error e) {
+            // Sin respuesta guardada la clave queda libre; los que estaban esperando reciben el mismo error
+            entries.asMap().remove(key, created);
+            created.response.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private StoredOrderResponse replay(String key, String fingerprint, Entry entry) {
+        if (!entry.fingerprint.equals(fingerprint)) {
+            throw new IdempotencyKeyReusedException("La clave de idempotencia " + key + " ya se usó con otra orden");
+        }
+        StoredOrderResponse response;
+        try {
+            response = entry.response.get(inFlightTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new RequestInProgressException("La orden con clave de idempotencia " + key + " sigue en proceso");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RequestInProgressException("La orden con clave de idempotencia " + key + " sigue en proceso");
+        }
+        return StoredOrderResponse.builder()
+                .status(response.getStatus())
+                .order(response.getOrder())
+                .replayed(true)
+                .build();
+    }
+
+    private static final class Entry {
+
+        private final String fingerprint;
+        private final CompletableFuture<StoredOrderResponse> response = new CompletableFuture<>();
+
+        private Entry(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+}
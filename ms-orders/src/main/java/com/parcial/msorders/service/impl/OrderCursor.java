@@ -0,0 +1,43 @@
+package com.parcial.msorders.service.impl;
+
+import com.parcial.msorders.exception.BadRequestException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posición de la última orden devuelta en un recorrido por cursor: (fecha, id).
+ * Se envía al cliente como un token opaco en Base64 URL-safe
+ */
+@Getter
+@AllArgsConstructor
+class OrderCursor {
+
+    private static final char SEPARATOR = '|';
+
+    private final LocalDateTime date;
+    private final Long id;
+
+    static OrderCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new BadRequestException("Cursor no válido");
+            }
+            return new OrderCursor(LocalDateTime.parse(raw.substring(separator + 1)),
+                    Long.valueOf(raw.substring(0, separator)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Cursor no válido", e);
+        }
+    }
+
+    String encode() {
+        String raw = id + String.valueOf(SEPARATOR) + date;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,204 @@
+package com.parcial.msorders.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.parcial.msorders.dto.OrderDTO;
+import com.parcial.msorders.dto.OrderItemDTO;
+import com.parcial.msorders.model.ExportFormat;
+import com.parcial.msorders.model.Order;
+import com.parcial.msorders.model.OrderItem;
+import com.parcial.msorders.model.OrderStatus;
+import com.parcial.msorders.repository.OrderRepository;
+import com.parcial.msorders.service.OrderExportService;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Exportación de órdenes en NDJSON (una orden con sus ítems por línea) o CSV (una fila por ítem).
+ * Recorre las órdenes con un Stream de solo avance y las procesa en tramos de
+ * OrderRepository.EXPORT_FETCH_SIZE: los ítems del tramo se cargan en una consulta, se escribe
+ * el tramo y se limpia el contexto de persistencia. La memoria usada depende del tramo,
+ * no de la cantidad de órdenes exportadas.
+ */
+@Service
+@Profile("!reactive")
+@RequiredArgsConstructor
+@Slf4j
+public class OrderExportServiceImpl implements OrderExportService {
+
+    private static final int WINDOW_SIZE = Integer.parseInt(OrderRepository.EXPORT_FETCH_SIZE);
+
+    // límites del tipo datetime de MySQL; se usan cuando no se indica el rango
+    private static final LocalDateTime MIN_DATE = LocalDateTime.of(1000, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_DATE = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    private static final String CSV_HEADER = "order_id,customer,date,status,total,"
+            + "item_id,product_id,product_name,quantity,unit_price,subtotal";
+
+    private final OrderRepository orderRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Escribe las órdenes del filtro en output, ordenadas por fecha e id
+     * @param status Estado (opcional)
+     * @param from Fecha inicial inclusive (opcional)
+     * @param to Fecha final exclusiva (opcional)
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportOrders(OrderStatus status, LocalDateTime from, LocalDateTime to, ExportFormat format,
+                             OutputStream output) throws IOException {
+        LocalDateTime start = from != null ? from : MIN_DATE;
+        LocalDateTime end = to != null ? to : MAX_DATE;
+        
+        long exported = 0;
+        try (Stream<Order> orders = status == null
+                ? orderRepository.streamByDateRange(start, end)
+                : orderRepository.streamByStatusAndDateRange(status, start, end);
+             OrderSink sink = format == ExportFormat.CSV ? new CsvSink(output) : new NdjsonSink(output)) {
+            Iterator<Order> iterator = orders.iterator();
+            List<Order> window = new ArrayList<>(WINDOW_SIZE);
+            while (iterator.hasNext()) {
+                window.add(iterator.next());
+                if (window.size() == WINDOW_SIZE) {
+                    exported += writeWindow(window, sink);
+                }
+            }
+            exported += writeWindow(window, sink);
+        }
+        log.info("Exportación de órdenes terminada: {} órdenes", exported);
+    }
+
+    /**
+     * Carga los ítems de todas las órdenes del tramo en una consulta, lo escribe y desprende las entidades
+     */
+    private int writeWindow(List<Order> window, OrderSink sink) throws IOException {
+        if (window.isEmpty()) {
+            return 0;
+        }
+        orderRepository.findAllWithItemsByIdIn(window.stream().map(Order::getId).collect(Collectors.toList()));
+        for (Order order : window) {
+            sink.write(order);
+        }
+        int written = window.size();
+        window.clear();
+        entityManager.clear();
+        return written;
+    }
+
+    private interface OrderSink extends AutoCloseable {
+
+        void write(Order order) throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    private final class NdjsonSink implements OrderSink {
+
+        private final JsonGenerator generator;
+        private final ObjectWriter writer;
+
+        private NdjsonSink(OutputStream output) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(output);
+            this.generator.setRootValueSeparator(null);
+            this.writer = objectMapper.writerFor(OrderDTO.class)
+                    .without(SerializationFeature.INDENT_OUTPUT)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        }
+
+        @Override
+        public void write(Order order) throws IOException {
+            writer.writeValue(generator, mapToDTO(order));
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+
+    private static final class CsvSink implements OrderSink {
+
+        private final Writer writer;
+
+        private CsvSink(OutputStream output) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            this.writer.write(CSV_HEADER);
+            this.writer.write('\n');
+        }
+
+        @Override
+        public void write(Order order) throws IOException {
+            String header = String.join(",", order.getId().toString(), csv(order.getCustomer()),
+                    String.valueOf(order.getDate()), String.valueOf(order.getStatus()), order.getTotal().toPlainString());
+            for (OrderItem item : order.getItems()) {
+                writer.write(header);
+                writer.write(',');
+                writer.write(String.join(",", item.getId().toString(), item.getProductId().toString(),
+                        csv(item.getProductName()), item.getQuantity().toString(),
+                        item.getUnitPrice().toPlainString(), item.getSubtotal().toPlainString()));
+                writer.write('\n');
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+
+        /**
+         * Encierra el valor entre comillas si tiene coma, comillas o saltos de línea (RFC 4180)
+         */
+        private static String csv(String value) {
+            if (value == null) {
+                return "";
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+
+    private OrderDTO mapToDTO(Order order) {
+        return OrderDTO.builder()
+                .id(order.getId())
+                .customer(order.getCustomer())
+                .date(order.getDate())
+                .status(order.getStatus())
+                .total(order.getTotal())
+                .items(order.getItems().stream()
+                        .map(item -> OrderItemDTO.builder()
+                                .id(item.getId())
+                                .productId(item.getProductId())
+                                .productName(item.getProductName())
+                                .quantity(item.getQuantity())
+                                .unitPrice(item.getUnitPrice())
+                                .subtotal(item.getSubtotal())
+                                .build())
+                        .collect(Collectors.toList()))
+                .build();
+    }
+}
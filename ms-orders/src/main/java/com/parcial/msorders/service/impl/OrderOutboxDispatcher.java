@@ -0,0 +1,273 @@
+package com.parcial.msorders.service.impl;
+
+import com.parcial.msorders.client.ProductClient;
+import com.parcial.msorders.dto.BatchReservationRequestDTO;
+import com.parcial.msorders.dto.ReservationRequestDTO;
+import com.parcial.msorders.dto.ReservationResultDTO;
+import com.parcial.msorders.dto.StockCheckItemDTO;
+import com.parcial.msorders.model.Order;
+import com.parcial.msorders.model.OrderOutboxEvent;
+import com.parcial.msorders.model.OrderStatus;
+import com.parcial.msorders.repository.OrderOutboxRepository;
+import com.parcial.msorders.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Despachador del outbox de órdenes aceptadas.
+ * Toma eventos en lotes, reserva y confirma el stock de todo el lote en una sola llamada al
+ * servicio de productos y pasa cada orden a CONFIRMED o CANCELLED.
+ * Corre en orders.outbox.dispatcher.parallelism hilos; cada hilo atiende su partición
+ * (order_id mod parallelism) para no competir por las mismas filas, y cada lote se toma con
+ * un lease en la base, así también pueden despachar varias instancias a la vez.
+ * Efecto exactamente una vez: la reserva lleva la referencia order-&lt;id&gt; y el servicio de
+ * productos devuelve la existente si se reintenta; el cambio de estado solo se aplica a órdenes
+ * que siguen en PENDING y va en la misma transacción que el borrado del evento. Mientras el
+ * evento exista, la orden no se puede cambiar a mano (updateOrderStatus responde 409).
+ */
+@Component
+@Profile("!reactive")
+@Slf4j
+public class OrderOutboxDispatcher implements SmartLifecycle {
+
+    private static final String METRIC = "orders.outbox.dispatched";
+    private static final String REFERENCE_PREFIX = "order-";
+
+    private final OrderRepository orderRepository;
+    private final OrderOutboxRepository outboxRepository;
+    private final ProductClient productClient;
+    private final OrderRejectionMetrics rejectionMetrics;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int parallelism;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final Duration lease;
+    private final Duration retryDelay;
+    private final Counter confirmed;
+    private final Counter cancelled;
+    private final Counter retried;
+    private volatile boolean running;
+    private ExecutorService workers;
+
+    public OrderOutboxDispatcher(
+            OrderRepository orderRepository,
+            OrderOutboxRepository outboxRepository,
+            ProductClient productClient,
+            OrderRejectionMetrics rejectionMetrics,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry registry,
+            @Value("${orders.outbox.dispatcher.enabled:true}") boolean enabled,
+            @Value("${orders.outbox.dispatcher.parallelism:2}") int parallelism,
+            @Value("${orders.outbox.dispatcher.batch-size:100}") int batchSize,
+            @Value("${orders.outbox.dispatcher.poll-interval:PT0.1S}") Duration pollInterval,
+            @Value("${orders.outbox.dispatcher.lease:PT30S}") Duration lease,
+            @Value("${orders.outbox.dispatcher.retry-delay:PT5S}") Duration retryDelay) {
+        this.orderRepository = orderRepository;
+        this.outboxRepository = outboxRepository;
+        this.productClient = productClient;
+        this.rejectionMetrics = rejectionMetrics;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.parallelism = parallelism;
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+        this.lease = lease;
+        this.retryDelay = retryDelay;
+        this.confirmed = dispatched(registry, "confirmed");
+        this.cancelled = dispatched(registry, "cancelled");
+        this.retried = dispatched(registry, "retried");
+    }
+
+    private static Counter dispatched(MeterRegistry registry, String outcome) {
+        return Counter.builder(METRIC)
+                .description("Órdenes del outbox despachadas, por resultado")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        AtomicInteger threads = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(parallelism,
+                task -> new Thread(task, "order-outbox-" + threads.getAndIncrement()));
+        for (int partition = 0; partition < parallelism; partition++) {
+            int assigned = partition;
+            workers.execute(() -> run(assigned));
+        }
+        log.info("Despachador del outbox iniciado con {} hilos", parallelism);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (workers == null) {
+            return;
+        }
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Despacha lotes de la partición mientras haya eventos; sin eventos, espera poll-interval
+     */
+    private void run(int partition) {
+        while (running) {
+            int dispatched;
+            try {
+                dispatched = dispatchBatch(partition);
+            } catch (RuntimeException e) {
+                log.error("Error al despachar el outbox (partición {}): {}", partition, e.getMessage());
+                dispatched = 0;
+            }
+            if (dispatched == 0) {
+                try {
+                    Thread.sleep(pollInterval.toMillis());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Toma un lote de la partición, reserva su stock en el servicio de productos y cierra las órdenes
+     * Si el servicio de productos falla, el lote se devuelve para reintentarlo después de retry-delay;
+     * si falla el cierre, el lease vence y el lote se retoma con las mismas reservas
+     * @return Cantidad de eventos tomados
+     */
+    private int dispatchBatch(int partition) {
+        String owner = UUID.randomUUID().toString();
+        List<OrderOutboxEvent> events = claim(partition, owner);
+        if (events.isEmpty()) {
+            return 0;
+        }
+        List<Long> eventIds = events.stream().map(OrderOutboxEvent::getId).collect(Collectors.toList());
+
+        // Las órdenes que ya no están en PENDING solo se sacan del outbox
+        List<Order> pending = transactionTemplate.execute(status -> orderRepository.findAllWithItemsByIdIn(
+                        events.stream().map(OrderOutboxEvent::getOrderId).collect(Collectors.toList())).stream()
+                .filter(order -> order.getStatus() == OrderStatus.PENDING)
+                .collect(Collectors.toList()));
+
+        List<ReservationResultDTO> results;
+        try {
+            results = reserve(pending);
+        } catch (RuntimeException e) {
+            log.warn("No se pudo reservar el stock de {} órdenes, se reintentan en {}: {}",
+                    pending.size(), retryDelay, e.getMessage());
+            transactionTemplate.executeWithoutResult(status -> outboxRepository.retryLater(
+                    eventIds, owner, LocalDateTime.now().plus(retryDelay)));
+            retried.increment(events.size());
+            return events.size();
+        }
+
+        List<Long> confirmedIds = new ArrayList<>();
+        List<Long> cancelledIds = new ArrayList<>();
+        for (int i = 0; i < pending.size(); i++) {
+            ReservationResultDTO result = results.get(i);
+            if (result.getOutcome() == ReservationResultDTO.Outcome.RESERVED) {
+                confirmedIds.add(pending.get(i).getId());
+            } else {
+                log.info("Orden {} cancelada: {}", pending.get(i).getId(), result.getMessage());
+                cancelledIds.add(pending.get(i).getId());
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            // updateOrderStatus no cambia órdenes con evento en el outbox; si alguna dejó PENDING igual,
+            // su stock ya quedó confirmado en el servicio de productos
+            if (!confirmedIds.isEmpty()
+                    && orderRepository.transitionStatus(confirmedIds, OrderStatus.PENDING, OrderStatus.CONFIRMED)
+                    < confirmedIds.size()) {
+                log.warn("Órdenes {}: stock confirmado pero ya no estaban en PENDING", confirmedIds);
+            }
+            if (!cancelledIds.isEmpty()) {
+                orderRepository.transitionStatus(cancelledIds, OrderStatus.PENDING, OrderStatus.CANCELLED);
+            }
+            outboxRepository.deleteClaimed(eventIds, owner);
+        });
+        results.forEach(result -> rejectionMetrics.record(result.getErrorCode()));
+        confirmed.increment(confirmedIds.size());
+        cancelled.increment(cancelledIds.size());
+        log.debug("Outbox (partición {}): {} órdenes confirmadas, {} canceladas",
+                partition, confirmedIds.size(), cancelledIds.size());
+        return events.size();
+    }
+
+    /**
+     * Toma hasta batch-size eventos listos de la partición por lease; con el token propio
+     * se leen solo los que este despachador efectivamente tomó
+     */
+    private List<OrderOutboxEvent> claim(int partition, String owner) {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> ids = outboxRepository.findDispatchableIds(parallelism, partition, now,
+                    PageRequest.ofSize(batchSize));
+            if (ids.isEmpty() || outboxRepository.claim(ids, owner, now.plus(lease), now) == 0) {
+                return List.of();
+            }
+            return outboxRepository.findByClaimedBy(owner);
+        });
+    }
+
+    /**
+     * Reserva y confirma en una sola llamada el stock de todas las órdenes, con la referencia de cada una
+     * @return Un resultado por orden, en el mismo orden
+     */
+    private List<ReservationResultDTO> reserve(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return List.of();
+        }
+        List<ReservationRequestDTO> reservations = orders.stream()
+                .map(order -> new ReservationRequestDTO(toStockChecks(order), REFERENCE_PREFIX + order.getId()))
+                .collect(Collectors.toList());
+        List<ReservationResultDTO> results = productClient.reserveStockBatch(
+                new BatchReservationRequestDTO(true, reservations)).getBody();
+        if (results == null || results.size() != orders.size()) {
+            throw new IllegalStateException("El servicio de productos no devolvió un resultado por reserva");
+        }
+        return results;
+    }
+
+    private List<StockCheckItemDTO> toStockChecks(Order order) {
+        return order.getItems().stream()
+                .map(item -> new StockCheckItemDTO(item.getProductId(), item.getQuantity()))
+                .collect(Collectors.toList());
+    }
+}
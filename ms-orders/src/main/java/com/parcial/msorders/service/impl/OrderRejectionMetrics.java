@@ -0,0 +1,54 @@
+package com.parcial.msorders.service.impl;
+
+import com.parcial.msorders.exception.InsufficientStockException;
+import com.parcial.msorders.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Contador orders.rejected de órdenes rechazadas, con la etiqueta reason
+ * (insufficient_stock o product_not_found). Los contadores se registran al arrancar,
+ * así contar un rechazo no busca nada en el registro de métricas.
+ */
+@Component
+public class OrderRejectionMetrics {
+
+    private static final String METRIC = "orders.rejected";
+
+    private final Counter insufficientStock;
+    private final Counter productNotFound;
+
+    public OrderRejectionMetrics(MeterRegistry registry) {
+        this.insufficientStock = Counter.builder(METRIC)
+                .description("Órdenes rechazadas por el servicio de productos")
+                .tag("reason", "insufficient_stock")
+                .register(registry);
+        this.productNotFound = Counter.builder(METRIC)
+                .description("Órdenes rechazadas por el servicio de productos")
+                .tag("reason", "product_not_found")
+                .register(registry);
+    }
+
+    /**
+     * Cuenta el rechazo si la excepción es de negocio; el resto se ignora
+     */
+    public void record(Throwable e) {
+        if (e instanceof InsufficientStockException) {
+            insufficientStock.increment();
+        } else if (e instanceof ResourceNotFoundException) {
+            productNotFound.increment();
+        }
+    }
+
+    /**
+     * Cuenta el rechazo según el código de error del servicio de productos (reservas en lote)
+     */
+    public void record(String errorCode) {
+        if ("STOCK_INSUFICIENTE".equals(errorCode)) {
+            insufficientStock.increment();
+        } else if ("RECURSO_NO_ENCONTRADO".equals(errorCode)) {
+            productNotFound.increment();
+        }
+    }
+}
@@ -1,29 +1,48 @@
 package com.parcial.msorders.service.impl;
 
 import com.parcial.msorders.client.ProductClient;
+import com.parcial.msorders.dto.BulkOrderResultDTO;
+import com.parcial.msorders.dto.CursorPage;
 import com.parcial.msorders.dto.OrderDTO;
 import com.parcial.msorders.dto.OrderItemDTO;
+import com.parcial.msorders.dto.OrderSummaryDTO;
 import com.parcial.msorders.dto.ProductDTO;
+import com.parcial.msorders.dto.ReservationRequestDTO;
+import com.parcial.msorders.dto.StockCheckItemDTO;
+import com.parcial.msorders.dto.StockReservationDTO;
 import com.parcial.msorders.exception.InsufficientStockException;
+import com.parcial.msorders.exception.OrderInProgressException;
 import com.parcial.msorders.exception.ResourceNotFoundException;
+import com.parcial.msorders.model.CustomerMatch;
 import com.parcial.msorders.model.Order;
 import com.parcial.msorders.model.OrderItem;
+import com.parcial.msorders.model.OrderOutboxEvent;
 import com.parcial.msorders.model.OrderStatus;
+import com.parcial.msorders.repository.OrderOutboxRepository;
 import com.parcial.msorders.repository.OrderRepository;
 import com.parcial.msorders.service.OrderService;
+import com.parcial.msorders.service.ProductCatalogService;
+import feign.FeignException;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.tracing.annotation.NewSpan;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -32,17 +51,23 @@ import java.util.stream.Collectors;
  * Implementa el patrón Circuit Breaker para la comunicación con el servicio de productos.
  */
 @Service
+@Profile("!reactive")
+@Timed("orders.service")
 @RequiredArgsConstructor
 @Slf4j
 public class OrderServiceImpl implements OrderService {
 
     private final OrderRepository orderRepository;
+    private final OrderOutboxRepository outboxRepository;
     private final ProductClient productClient;
+    private final ProductCatalogService productCatalogService;
+    private final OrderRejectionMetrics rejectionMetrics;
 
     /**
      * Crea una nueva orden en el sistema
      * Implementa el patrón Circuit Breaker para manejar fallos en la comunicación
      * con el servicio de productos
+     * Abre el span create-order, padre de las llamadas Feign y de las consultas SQL de la orden
      * @param orderDTO Datos de la orden a crear
      * @return La orden creada con su ID asignado
      * @throws InsufficientStockException si no hay suficiente stock para algún producto
@@ -51,20 +76,107 @@ public class OrderServiceImpl implements OrderService {
     @Override
     @Transactional
     @CircuitBreaker(name = "productService", fallbackMethod = "createOrderFallback")
+    @NewSpan("create-order")
     public OrderDTO createOrder(OrderDTO orderDTO) {
-        // Validar stock para todos los productos en la orden
-        for (OrderItemDTO itemDTO : orderDTO.getItems()) {
-            ResponseEntity<Boolean> stockResponse = productClient.checkStock(
-                    itemDTO.getProductId(), itemDTO.getQuantity());
-            
-            if (!Boolean.TRUE.equals(stockResponse.getBody())) {
-                throw new InsufficientStockException("Stock insuficiente para el producto con ID: " + itemDTO.getProductId());
+        // Obtener nombre y precio de los productos (caché o una sola llamada para los que falten)
+        Map<Long, ProductDTO> products = productCatalogService.resolveProducts(toStockChecks(orderDTO.getItems()));
+        
+        return mapToDTO(reserveAndSave(orderDTO, products));
+    }
+    
+    /**
+     * Acepta una orden para confirmarla en segundo plano
+     * Completa precios y total con el catálogo y guarda la orden en PENDING junto con su evento
+     * del outbox, en la misma transacción y sin reservar stock. La conexión se toma recién en el flush,
+     * así la transacción no la retiene durante la consulta al catálogo.
+     * OrderOutboxDispatcher reserva el stock después y la pasa a CONFIRMED o CANCELLED
+     * @param orderDTO Datos de la orden a aceptar
+     * @return La orden aceptada, en estado PENDING
+     * @throws ResourceNotFoundException si algún producto no existe
+     * @throws InsufficientStockException si la consulta al catálogo ya indica que falta stock
+     */
+    @Override
+    @Transactional
+    @CircuitBreaker(name = "productService", fallbackMethod = "createOrderFallback")
+    @NewSpan("accept-order")
+    public OrderDTO acceptOrder(OrderDTO orderDTO) {
+        orderDTO.setId(null);
+        Map<Long, ProductDTO> products = productCatalogService.resolveProducts(toStockChecks(orderDTO.getItems()));
+        applyPrices(orderDTO, products);
+        
+        Order savedOrder = orderRepository.save(mapToEntity(orderDTO));
+        outboxRepository.save(OrderOutboxEvent.builder()
+                .orderId(savedOrder.getId())
+                .createdAt(savedOrder.getDate())
+                .availableAt(savedOrder.getDate())
+                .build());
+        return mapToDTO(savedOrder);
+    }
+    
+    /**
+     * Crea un tramo de órdenes de la carga masiva en una sola transacción
+     * Los productos de todo el tramo se resuelven en una sola consulta y el stock se reserva por orden,
+     * así una orden sin stock o con un producto inexistente se rechaza sin afectar al resto.
+     * Si falla el servicio de productos o la base, se revierte el tramo entero y se liberan sus reservas
+     * @param orders Órdenes del tramo, ya validadas
+     * @return Un resultado por orden, en el mismo orden que la lista (sin index)
+     */
+    @Override
+    @Transactional
+    @CircuitBreaker(name = "productService")
+    public List<BulkOrderResultDTO> createOrders(List<OrderDTO> orders) {
+        Map<Long, ProductDTO> products = productCatalogService.findProducts(orders.stream()
+                .flatMap(order -> order.getItems().stream())
+                .map(OrderItemDTO::getProductId)
+                .collect(Collectors.toSet()));
+        
+        List<BulkOrderResultDTO> results = new ArrayList<>(orders.size());
+        for (OrderDTO orderDTO : orders) {
+            orderDTO.setId(null);
+            try {
+                Order savedOrder = reserveAndSave(orderDTO, products);
+                results.add(BulkOrderResultDTO.builder()
+                        .outcome(BulkOrderResultDTO.Outcome.CREATED)
+                        .orderId(savedOrder.getId())
+                        .total(savedOrder.getTotal())
+                        .build());
+            } catch (ResourceNotFoundException e) {
+                rejectionMetrics.record(e);
+                results.add(rejected("RECURSO_NO_ENCONTRADO", e.getMessage()));
+            } catch (InsufficientStockException e) {
+                rejectionMetrics.record(e);
+                results.add(rejected("STOCK_INSUFICIENTE", e.getMessage()));
             }
-            
-            // Obtener detalles del producto
-            ResponseEntity<ProductDTO> productResponse = productClient.getProductById(itemDTO.getProductId());
-            ProductDTO product = productResponse.getBody();
-            
+        }
+        return results;
+    }
+    
+    /**
+     * Completa precios y total, reserva el stock y guarda la orden
+     * La reserva se confirma o se libera al terminar la transacción; con los IDs en bloques,
+     * los INSERT quedan para el flush y salen en lotes
+     * @throws ResourceNotFoundException si algún producto no existe
+     * @throws InsufficientStockException si algún producto no tiene stock suficiente
+     */
+    private Order reserveAndSave(OrderDTO orderDTO, Map<Long, ProductDTO> products) {
+        applyPrices(orderDTO, products);
+        
+        // Reservar el stock antes de guardar; se confirma o se libera al terminar la transacción
+        StockReservationDTO reservation = reserveStock(orderDTO.getItems());
+        bindReservationToTransaction(reservation.getId());
+        
+        // Convertir DTO a entidad
+        Order order = mapToEntity(orderDTO);
+        return orderRepository.save(order);
+    }
+    
+    /**
+     * Completa nombre, precio y subtotal de cada ítem, el total, la fecha y el estado PENDING
+     * @throws ResourceNotFoundException si algún producto no existe
+     */
+    private void applyPrices(OrderDTO orderDTO, Map<Long, ProductDTO> products) {
+        for (OrderItemDTO itemDTO : orderDTO.getItems()) {
+            ProductDTO product = products.get(itemDTO.getProductId());
             if (product == null) {
                 throw new ResourceNotFoundException("Producto no encontrado con id: " + itemDTO.getProductId());
             }
@@ -76,29 +188,93 @@ public class OrderServiceImpl implements OrderService {
         }
         
         // Calcular total
-        BigDecimal total = orderDTO.getItems().stream()
-                .map(OrderItemDTO::getSubtotal)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        orderDTO.setTotal(total);
+        orderDTO.setTotal(calculateTotal(orderDTO.getItems()));
         orderDTO.setDate(LocalDateTime.now());
         orderDTO.setStatus(OrderStatus.PENDING);
+    }
+    
+    private BulkOrderResultDTO rejected(String errorCode, String message) {
+        return BulkOrderResultDTO.builder()
+                .outcome(BulkOrderResultDTO.Outcome.REJECTED)
+                .errorCode(errorCode)
+                .message(message)
+                .build();
+    }
+    
+    /**
+     * Reserva en el servicio de productos el stock de todos los ítems de la orden
+     * El descuento es atómico: si algún producto no alcanza, no se reserva nada
+     * @param items Ítems de la orden
+     * @return La reserva creada
+     * @throws InsufficientStockException si algún producto no tiene stock suficiente
+     * @throws ResourceNotFoundException si algún producto no existe
+     */
+    private StockReservationDTO reserveStock(List<OrderItemDTO> items) {
+        StockReservationDTO reservation;
+        try {
+            reservation = productClient.reserveStock(new ReservationRequestDTO(toStockChecks(items), null)).getBody();
+        } catch (FeignException.Conflict e) {
+            throw new InsufficientStockException("Stock insuficiente para reservar los productos de la orden", e);
+        } catch (FeignException.NotFound e) {
+            throw new ResourceNotFoundException("Producto no encontrado al reservar stock", e);
+        }
         
-        // Convertir DTO a entidad
-        Order order = mapToEntity(orderDTO);
-        Order savedOrder = orderRepository.save(order);
-        
-        return mapToDTO(savedOrder);
+        if (reservation == null || reservation.getId() == null) {
+            throw new IllegalStateException("El servicio de productos no devolvió la reserva creada");
+        }
+        return reservation;
+    }
+    
+    /**
+     * Confirma la reserva si la transacción de la orden se confirma y la libera si se revierte
+     * Si la llamada falla, la reserva expira sola en el servicio de productos
+     * @param reservationId ID de la reserva
+     */
+    private void bindReservationToTransaction(Long reservationId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                try {
+                    if (status == STATUS_COMMITTED) {
+                        productClient.commitReservation(reservationId);
+                    } else {
+                        productClient.releaseReservation(reservationId);
+                    }
+                } catch (RuntimeException e) {
+                    log.error("No se pudo finalizar la reserva {}: {}", reservationId, e.getMessage());
+                }
+            }
+        });
+    }
+    
+    /**
+     * Suma los subtotales de los ítems de la orden
+     */
+    private BigDecimal calculateTotal(List<OrderItemDTO> items) {
+        return items.stream()
+                .map(OrderItemDTO::getSubtotal)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+    
+    private List<StockCheckItemDTO> toStockChecks(List<OrderItemDTO> items) {
+        return items.stream()
+                .map(item -> new StockCheckItemDTO(item.getProductId(), item.getQuantity()))
+                .collect(Collectors.toList());
     }
     
     /**
      * Método de respaldo (fallback) para el circuit breaker
-     * Se ejecuta cuando el método createOrder falla o tarda demasiado
+     * Se ejecuta cuando createOrder o acceptOrder fallan o tardan demasiado
+     * Los errores de negocio (producto inexistente o sin stock) se propagan tal cual
      * @param orderDTO Datos de la orden
      * @param e Excepción que causó el fallo
      * @return No retorna valor, lanza una excepción
      */
     public OrderDTO createOrderFallback(OrderDTO orderDTO, Exception e) {
+        if (e instanceof InsufficientStockException || e instanceof ResourceNotFoundException) {
+            rejectionMetrics.record(e);
+            throw (RuntimeException) e;
+        }
         log.error("Circuit breaker activado para crear orden: {}", e.getMessage());
         throw new RuntimeException("El servicio de productos no está disponible, intente más tarde", e);
     }
@@ -125,19 +301,56 @@ public class OrderServiceImpl implements OrderService {
     @Override
     @Transactional(readOnly = true)
     public Page<OrderDTO> getAllOrders(Pageable pageable) {
-        return orderRepository.findAll(pageable).map(this::mapToDTO);
+        return loadWithItems(orderRepository.findIdPage(pageable));
     }
 
     /**
-     * Busca órdenes por cliente (búsqueda parcial)
-     * @param customer Nombre o parte del nombre del cliente
+     * Obtiene las órdenes ordenadas por (fecha, id) a partir de un cursor (paginación keyset)
+     * Pide un elemento de más para saber si hay página siguiente, sin consulta de conteo
+     * @param cursor Token devuelto en la página anterior (nulo para la primera página)
+     * @param size Cantidad de órdenes por página
+     * @return Página de órdenes con el cursor para continuar
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<OrderDTO> getOrdersAfter(String cursor, int size) {
+        PageRequest limit = PageRequest.ofSize(size + 1);
+        List<Long> ids;
+        if (cursor == null || cursor.isEmpty()) {
+            ids = orderRepository.findFirstIds(limit);
+        } else {
+            OrderCursor after = OrderCursor.decode(cursor);
+            ids = orderRepository.findIdsAfter(after.getDate(), after.getId(), limit);
+        }
+        
+        boolean hasNext = ids.size() > size;
+        if (hasNext) {
+            ids = ids.subList(0, size);
+        }
+        if (ids.isEmpty()) {
+            return new CursorPage<>(List.of(), size, null, false);
+        }
+        
+        Map<Long, Order> orders = orderRepository.findAllWithItemsByIdIn(ids).stream()
+                .collect(Collectors.toMap(Order::getId, order -> order));
+        Order last = orders.get(ids.get(ids.size() - 1));
+        String nextCursor = hasNext ? new OrderCursor(last.getDate(), last.getId()).encode() : null;
+        
+        List<OrderDTO> content = ids.stream().map(id -> mapToDTO(orders.get(id))).collect(Collectors.toList());
+        return new CursorPage<>(content, size, nextCursor, hasNext);
+    }
+
+    /**
+     * Busca órdenes por cliente, sin distinguir mayúsculas ni acentos
+     * @param customer Nombre o comienzo del nombre del cliente
+     * @param match Si el nombre debe empezar con el texto (PREFIX) o ser igual (EXACT)
      * @param pageable Información de paginación
      * @return Página de órdenes que coinciden con la búsqueda
      */
     @Override
     @Transactional(readOnly = true)
-    public Page<OrderDTO> getOrdersByCustomer(String customer, Pageable pageable) {
-        return orderRepository.findByCustomerContainingIgnoreCase(customer, pageable).map(this::mapToDTO);
+    public Page<OrderDTO> getOrdersByCustomer(String customer, CustomerMatch match, Pageable pageable) {
+        return loadWithItems(orderRepository.findIdPageByCustomer(match.pattern(customer), pageable));
     }
 
     /**
@@ -149,35 +362,89 @@ public class OrderServiceImpl implements OrderService {
     @Override
     @Transactional(readOnly = true)
     public Page<OrderDTO> getOrdersByStatus(OrderStatus status, Pageable pageable) {
-        return orderRepository.findByStatus(status, pageable).map(this::mapToDTO);
+        return loadWithItems(orderRepository.findIdPageByStatus(status, pageable));
     }
 
     /**
      * Filtra órdenes por cliente y estado
-     * @param customer Nombre o parte del nombre del cliente
+     * @param customer Nombre o comienzo del nombre del cliente
+     * @param match Si el nombre debe empezar con el texto (PREFIX) o ser igual (EXACT)
      * @param status Estado a filtrar
      * @param pageable Información de paginación
      * @return Página de órdenes que coinciden con ambos criterios
      */
     @Override
     @Transactional(readOnly = true)
-    public Page<OrderDTO> getOrdersByCustomerAndStatus(String customer, OrderStatus status, Pageable pageable) {
-        return orderRepository.findByCustomerContainingIgnoreCaseAndStatus(customer, status, pageable)
-                .map(this::mapToDTO);
+    public Page<OrderDTO> getOrdersByCustomerAndStatus(String customer, CustomerMatch match, OrderStatus status,
+                                                       Pageable pageable) {
+        return loadWithItems(orderRepository.findIdPageByCustomerAndStatus(match.pattern(customer), status, pageable));
+    }
+
+    /**
+     * Obtiene el resumen de todas las órdenes con paginación
+     * La consulta proyecta directo al DTO: no carga entidades ni ítems
+     * @param pageable Información de paginación
+     * @return Página de resúmenes de órdenes
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Page<OrderSummaryDTO> getOrderSummaries(Pageable pageable) {
+        return orderRepository.findSummaries(pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<OrderSummaryDTO> getOrderSummariesByCustomer(String customer, CustomerMatch match, Pageable pageable) {
+        return orderRepository.findSummariesByCustomer(match.pattern(customer), pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<OrderSummaryDTO> getOrderSummariesByStatus(OrderStatus status, Pageable pageable) {
+        return orderRepository.findSummariesByStatus(status, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<OrderSummaryDTO> getOrderSummariesByCustomerAndStatus(String customer, CustomerMatch match,
+                                                                      OrderStatus status, Pageable pageable) {
+        return orderRepository.findSummariesByCustomerAndStatus(match.pattern(customer), status, pageable);
+    }
+
+    /**
+     * Carga las órdenes de una página de IDs junto con sus ítems en una sola consulta
+     * y las devuelve en el mismo orden de la página
+     * @param ids Página de IDs de órdenes
+     * @return Página de órdenes con sus ítems
+     */
+    private Page<OrderDTO> loadWithItems(Page<Long> ids) {
+        if (ids.isEmpty()) {
+            return new PageImpl<>(List.of(), ids.getPageable(), ids.getTotalElements());
+        }
+        Map<Long, Order> orders = orderRepository.findAllWithItemsByIdIn(ids.getContent()).stream()
+                .collect(Collectors.toMap(Order::getId, order -> order));
+        return ids.map(id -> mapToDTO(orders.get(id)));
     }
 
     /**
      * Actualiza el estado de una orden existente
      * @param id ID de la orden a actualizar
      * @param status Nuevo estado
+     * Mientras la orden tenga su evento en el outbox el despachador puede estar confirmando su stock
+     * en el servicio de productos, así que no se cambia a mano: el evento se borra recién junto con
+     * el paso a CONFIRMED o CANCELLED
      * @return La orden actualizada
      * @throws ResourceNotFoundException si la orden no existe
+     * @throws OrderInProgressException si la orden todavía espera la reserva de su stock
      */
     @Override
     @Transactional
     public OrderDTO updateOrderStatus(Long id, OrderStatus status) {
         Order order = orderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Orden no encontrada con id: " + id));
+        if (outboxRepository.existsByOrderId(id)) {
+            throw new OrderInProgressException("La orden " + id + " todavía se está confirmando; reintentar en unos segundos");
+        }
         
         order.setStatus(status);
         Order updatedOrder = orderRepository.save(order);
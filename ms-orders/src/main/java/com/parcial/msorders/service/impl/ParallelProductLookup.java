@@ -0,0 +1,125 @@
+package com.parcial.msorders.service.impl;
+
+import com.parcial.msorders.client.ProductClient;
+import com.parcial.msorders.dto.ProductDTO;
+import com.parcial.msorders.dto.StockCheckItemDTO;
+import com.parcial.msorders.exception.InsufficientStockException;
+import com.parcial.msorders.exception.ResourceNotFoundException;
+import feign.FeignException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Consulta en paralelo, ítem por ítem, el stock y los datos de los productos de una orden.
+ * Se usa cuando no se trabaja con el endpoint masivo de disponibilidad: la latencia
+ * de la orden queda acotada por el ítem más lento y no por la suma de todos.
+ * Corta en el primer producto inexistente o sin stock y cancela las consultas restantes.
+ */
+@Component
+@Profile("!reactive")
+@Slf4j
+public class ParallelProductLookup {
+
+    private final ProductClient productClient;
+    private final AsyncTaskExecutor executor;
+    private final int maxConcurrencyPerOrder;
+
+    public ParallelProductLookup(
+            ProductClient productClient,
+            @Qualifier("productLookupExecutor") AsyncTaskExecutor executor,
+            @Value("${products.lookup.max-concurrency-per-order:8}") int maxConcurrencyPerOrder) {
+        this.productClient = productClient;
+        this.executor = executor;
+        this.maxConcurrencyPerOrder = maxConcurrencyPerOrder;
+    }
+
+    /**
+     * Verifica stock y obtiene los datos de cada producto, con como máximo
+     * products.lookup.max-concurrency-per-order llamadas en vuelo para la orden
+     * @param items Pares (producto, cantidad) a consultar
+     * @return Productos indexados por ID
+     * @throws ResourceNotFoundException si algún producto no existe
+     * @throws InsufficientStockException si algún producto no tiene stock suficiente
+     */
+    public Map<Long, ProductDTO> lookup(List<StockCheckItemDTO> items) {
+        Deque<Callable<ProductDTO>> pending = new ArrayDeque<>();
+        for (StockCheckItemDTO item : items) {
+            pending.add(() -> checkStock(item));
+            pending.add(() -> fetchProduct(item.getProductId()));
+        }
+        
+        ExecutorCompletionService<ProductDTO> completionService = new ExecutorCompletionService<>(executor);
+        List<Future<ProductDTO>> inFlight = new ArrayList<>();
+        Map<Long, ProductDTO> products = new HashMap<>();
+        try {
+            while (!pending.isEmpty() && inFlight.size() < maxConcurrencyPerOrder) {
+                inFlight.add(completionService.submit(pending.poll()));
+            }
+            for (int completed = 0; completed < items.size() * 2; completed++) {
+                ProductDTO product = completionService.take().get();
+                if (product != null) {
+                    products.put(product.getId(), product);
+                }
+                if (!pending.isEmpty()) {
+                    inFlight.add(completionService.submit(pending.poll()));
+                }
+            }
+            return products;
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Consulta de productos interrumpida", e);
+        } finally {
+            inFlight.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private ProductDTO checkStock(StockCheckItemDTO item) {
+        Boolean hasStock = callProducts(item.getProductId(),
+                () -> productClient.checkStock(item.getProductId(), item.getQuantity()).getBody());
+        if (!Boolean.TRUE.equals(hasStock)) {
+            throw new InsufficientStockException("Stock insuficiente para el producto con ID: " + item.getProductId());
+        }
+        return null;
+    }
+
+    private ProductDTO fetchProduct(Long productId) {
+        ProductDTO product = callProducts(productId, () -> productClient.getProductById(productId).getBody());
+        if (product == null) {
+            throw new ResourceNotFoundException("Producto no encontrado con id: " + productId);
+        }
+        return product;
+    }
+
+    private <T> T callProducts(Long productId, Supplier<T> call) {
+        try {
+            return call.get();
+        } catch (FeignException.NotFound e) {
+            throw new ResourceNotFoundException("Producto no encontrado con id: " + productId, e);
+        }
+    }
+
+    private RuntimeException unwrap(Throwable cause) {
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        return new IllegalStateException("Error al consultar productos", cause);
+    }
+}
@@ -0,0 +1,235 @@
+package com.parcial.msorders.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.parcial.msorders.client.ProductClient;
+import com.parcial.msorders.dto.ProductAvailabilityDTO;
+import com.parcial.msorders.dto.ProductCacheStatsDTO;
+import com.parcial.msorders.dto.ProductChangeFeedDTO;
+import com.parcial.msorders.dto.ProductDTO;
+import com.parcial.msorders.dto.StockCheckItemDTO;
+import com.parcial.msorders.exception.InsufficientStockException;
+import com.parcial.msorders.exception.ResourceNotFoundException;
+import com.parcial.msorders.service.ProductCatalogService;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Implementación del catálogo de productos con caché de lectura.
+ * Guarda nombre y precio de los productos consultados; el stock nunca se toma
+ * de la caché porque la reserva en el servicio de productos es la que decide.
+ * Las entradas caducan como máximo a los products.cache.max-staleness y se
+ * invalidan antes leyendo el feed de cambios del servicio de productos.
+ * Lo que no está en caché se consulta con {@link CoalescingProductLookup}, que comparte
+ * las consultas de un mismo producto entre órdenes concurrentes.
+ */
+@Service
+@Profile("!reactive")
+@Timed("orders.service")
+@Slf4j
+public class ProductCatalogServiceImpl implements ProductCatalogService {
+
+    private final ProductClient productClient;
+    private final ParallelProductLookup parallelProductLookup;
+    private final CoalescingProductLookup coalescingProductLookup;
+    private final Cache<Long, ProductDTO> cache;
+    private final boolean cacheEnabled;
+    private final boolean perItemLookup;
+    private final int changeFeedBatchSize;
+    private final AtomicLong invalidations = new AtomicLong();
+    private volatile long changeFeedVersion = -1;
+
+    public ProductCatalogServiceImpl(
+            ProductClient productClient,
+            ParallelProductLookup parallelProductLookup,
+            CoalescingProductLookup coalescingProductLookup,
+            @Value("${products.lookup.mode:bulk}") String lookupMode,
+            @Value("${products.cache.enabled:true}") boolean cacheEnabled,
+            @Value("${products.cache.maximum-size:10000}") long maximumSize,
+            @Value("${products.cache.max-staleness:PT60S}") Duration maxStaleness,
+            @Value("${products.cache.change-feed-batch-size:500}") int changeFeedBatchSize) {
+        this.productClient = productClient;
+        this.parallelProductLookup = parallelProductLookup;
+        this.coalescingProductLookup = coalescingProductLookup;
+        this.perItemLookup = "per-item".equalsIgnoreCase(lookupMode);
+        this.cacheEnabled = cacheEnabled;
+        this.changeFeedBatchSize = changeFeedBatchSize;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(maxStaleness)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Obtiene nombre y precio de los productos de una orden
+     * Los productos en caché no generan llamadas; los demás se consultan juntos en
+     * una llamada de disponibilidad compartida con otras órdenes, que además trae su stock,
+     * o bien ítem por ítem en paralelo si products.lookup.mode=per-item
+     * @param items Pares (producto, cantidad) de la orden
+     * @return Productos indexados por ID
+     * @throws ResourceNotFoundException si algún producto no existe
+     * @throws InsufficientStockException si algún producto consultado no tiene stock suficiente
+     */
+    @Override
+    public Map<Long, ProductDTO> resolveProducts(List<StockCheckItemDTO> items) {
+        Map<Long, ProductDTO> products = new HashMap<>();
+        if (cacheEnabled) {
+            products.putAll(cache.getAllPresent(items.stream()
+                    .map(StockCheckItemDTO::getProductId)
+                    .collect(Collectors.toSet())));
+        }
+        
+        List<StockCheckItemDTO> misses = items.stream()
+                .filter(item -> !products.containsKey(item.getProductId()))
+                .collect(Collectors.toList());
+        if (misses.isEmpty()) {
+            return products;
+        }
+        
+        // Si hubo una invalidación durante la llamada, el resultado puede ser viejo y no se guarda
+        long invalidationsBefore = invalidations.get();
+        Map<Long, ProductDTO> fetched = perItemLookup
+                ? parallelProductLookup.lookup(misses)
+                : fetchProducts(misses);
+        if (cacheEnabled && invalidations.get() == invalidationsBefore) {
+            cache.putAll(fetched);
+        }
+        products.putAll(fetched);
+        return products;
+    }
+
+    /**
+     * Nombre y precio de varios productos sin verificar stock (la reserva lo hace después)
+     * Los que falten en la caché se piden juntos; los inexistentes no aparecen en el mapa
+     */
+    @Override
+    public Map<Long, ProductDTO> findProducts(Collection<Long> productIds) {
+        Map<Long, ProductDTO> products = new HashMap<>();
+        if (cacheEnabled) {
+            products.putAll(cache.getAllPresent(productIds));
+        }
+        
+        List<Long> misses = productIds.stream()
+                .distinct()
+                .filter(id -> !products.containsKey(id))
+                .collect(Collectors.toList());
+        if (misses.isEmpty()) {
+            return products;
+        }
+        
+        long invalidationsBefore = invalidations.get();
+        Map<Long, ProductDTO> fetched = coalescingProductLookup.lookup(misses).values().stream()
+                .filter(ProductAvailabilityDTO::isFound)
+                .collect(Collectors.toMap(ProductAvailabilityDTO::getProductId, product -> ProductDTO.builder()
+                        .id(product.getProductId())
+                        .name(product.getName())
+                        .price(product.getPrice())
+                        .build()));
+        if (cacheEnabled && invalidations.get() == invalidationsBefore) {
+            cache.putAll(fetched);
+        }
+        products.putAll(fetched);
+        return products;
+    }
+
+    @Override
+    public void invalidate(Collection<Long> productIds) {
+        invalidations.incrementAndGet();
+        coalescingProductLookup.forget(productIds);
+        cache.invalidateAll(productIds);
+    }
+
+    @Override
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        coalescingProductLookup.forgetAll();
+        cache.invalidateAll();
+    }
+
+    @Override
+    public ProductCacheStatsDTO getCacheStats() {
+        CacheStats stats = cache.stats();
+        return ProductCacheStatsDTO.builder()
+                .size(cache.estimatedSize())
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .hitRate(stats.hitRate())
+                .evictionCount(stats.evictionCount())
+                .changeFeedVersion(changeFeedVersion)
+                .build();
+    }
+
+    /**
+     * Lee el feed de cambios del servicio de productos e invalida lo modificado
+     * Si el feed no responde, las entradas igual caducan por tiempo
+     */
+    @Scheduled(fixedDelayString = "${products.cache.poll-interval:PT2S}")
+    public void pollProductChanges() {
+        if (!cacheEnabled) {
+            return;
+        }
+        try {
+            ProductChangeFeedDTO feed;
+            do {
+                feed = productClient.getProductChanges(changeFeedVersion, changeFeedBatchSize).getBody();
+                if (feed == null) {
+                    return;
+                }
+                if (feed.isReset()) {
+                    invalidateAll();
+                } else if (!feed.getProductIds().isEmpty()) {
+                    invalidate(feed.getProductIds());
+                }
+                changeFeedVersion = feed.getVersion();
+            } while (feed.isHasMore());
+        } catch (RuntimeException e) {
+            log.warn("No se pudo leer el feed de cambios de productos: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Las cantidades de un mismo producto se suman antes de compararlas con su stock
+     */
+    private Map<Long, ProductDTO> fetchProducts(List<StockCheckItemDTO> items) {
+        Map<Long, Integer> requested = new LinkedHashMap<>();
+        for (StockCheckItemDTO item : items) {
+            requested.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        Map<Long, ProductAvailabilityDTO> availability = coalescingProductLookup.lookup(requested.keySet());
+        
+        Map<Long, ProductDTO> products = new HashMap<>();
+        for (Map.Entry<Long, Integer> entry : requested.entrySet()) {
+            ProductAvailabilityDTO product = availability.get(entry.getKey());
+            
+            if (product == null || !product.isFound()) {
+                throw new ResourceNotFoundException("Producto no encontrado con id: " + entry.getKey());
+            }
+            
+            if (product.getStock() == null || product.getStock() < entry.getValue()) {
+                throw new InsufficientStockException("Stock insuficiente para el producto con ID: " + entry.getKey());
+            }
+            
+            products.put(product.getProductId(), ProductDTO.builder()
+                    .id(product.getProductId())
+                    .name(product.getName())
+                    .price(product.getPrice())
+                    .build());
+        }
+        return products;
+    }
+}
@@ -0,0 +1,94 @@
+package com.parcial.msorders.service.impl;
+
+import com.parcial.msorders.model.IdGenerators;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reparte IDs de la tabla id_generators para el stack reactivo (perfil reactive).
+ * Usa la misma semántica pooled-lo que los @TableGenerator de Order y OrderItem:
+ * la fila guarda el primer valor libre, cada reserva lo adelanta en un bloque y el bloque
+ * se reparte en memoria. Así ambos stacks pueden escribir sobre la misma base sin chocar.
+ * La reserva corre en su propia transacción, antes y fuera de la transacción de la orden.
+ */
+@Component
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveIdGenerator {
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+
+    /**
+     * Devuelve count IDs del generador indicado (no necesariamente consecutivos)
+     * Solo va a la base cuando el bloque en memoria no alcanza
+     */
+    public Mono<List<Long>> nextIds(String generator, int count) {
+        List<Long> ids = new ArrayList<>(count);
+        Block block = blocks.get(generator);
+        if (block != null) {
+            block.take(ids, count);
+        }
+        int missing = count - ids.size();
+        if (missing == 0) {
+            return Mono.just(ids);
+        }
+        return allocate(generator, Math.max(missing, IdGenerators.ALLOCATION_SIZE))
+                .map(allocated -> {
+                    allocated.take(ids, count);
+                    blocks.put(generator, allocated);
+                    return ids;
+                });
+    }
+
+    /**
+     * Reserva [next_val, next_val + size) bloqueando la fila del generador
+     */
+    private Mono<Block> allocate(String generator, int size) {
+        return databaseClient.sql("select " + IdGenerators.VALUE_COLUMN + " from " + IdGenerators.TABLE
+                        + " where " + IdGenerators.NAME_COLUMN + " = :name for update")
+                .bind("name", generator)
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("Generador de IDs no inicializado: " + generator)))
+                .flatMap(lo -> databaseClient.sql("update " + IdGenerators.TABLE + " set " + IdGenerators.VALUE_COLUMN
+                                + " = :next where " + IdGenerators.NAME_COLUMN + " = :name")
+                        .bind("next", lo + size)
+                        .bind("name", generator)
+                        .then()
+                        .thenReturn(new Block(lo, lo + size)))
+                .as(transactionalOperator::transactional);
+    }
+
+    /**
+     * Bloque reservado en memoria: next es el siguiente ID libre, limit el primero fuera del bloque
+     * take completa la lista hasta count elementos o hasta agotar el bloque
+     */
+    private static final class Block {
+
+        private long next;
+        private final long limit;
+
+        private Block(long next, long limit) {
+            this.next = next;
+            this.limit = limit;
+        }
+
+        private synchronized void take(List<Long> ids, int count) {
+            while (ids.size() < count && next < limit) {
+                ids.add(next++);
+            }
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package com.parcial.msorders.service.impl;
+
+import com.parcial.msorders.client.ReactiveProductClient;
+import com.parcial.msorders.dto.AvailabilityRequestDTO;
+import com.parcial.msorders.dto.OrderDTO;
+import com.parcial.msorders.dto.OrderItemDTO;
+import com.parcial.msorders.dto.ProductAvailabilityDTO;
+import com.parcial.msorders.dto.ReservationRequestDTO;
+import com.parcial.msorders.dto.StockCheckItemDTO;
+import com.parcial.msorders.dto.StockReservationDTO;
+import com.parcial.msorders.exception.InsufficientStockException;
+import com.parcial.msorders.exception.ResourceNotFoundException;
+import com.parcial.msorders.model.CustomerKey;
+import com.parcial.msorders.model.CustomerMatch;
+import com.parcial.msorders.model.IdGenerators;
+import com.parcial.msorders.model.OrderItemRecord;
+import com.parcial.msorders.model.OrderRecord;
+import com.parcial.msorders.model.OrderStatus;
+import com.parcial.msorders.repository.ReactiveOrderItemRepository;
+import com.parcial.msorders.repository.ReactiveOrderRepository;
+import com.parcial.msorders.service.ReactiveOrderService;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Implementación no bloqueante del servicio de órdenes (perfil reactive).
+ * Sigue el mismo flujo que {@link OrderServiceImpl}: disponibilidad en una sola llamada,
+ * reserva de stock, guardado de la orden en una transacción R2DBC y confirmación
+ * o liberación de la reserva según el resultado. Ningún paso bloquea el hilo del event loop.
+ */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveOrderServiceImpl implements ReactiveOrderService {
+
+    private final ReactiveOrderRepository orderRepository;
+    private final ReactiveOrderItemRepository orderItemRepository;
+    private final ReactiveProductClient productClient;
+    private final TransactionalOperator transactionalOperator;
+    private final R2dbcEntityTemplate entityTemplate;
+    private final ReactiveIdGenerator idGenerator;
+    private final OrderRejectionMetrics rejectionMetrics;
+
+    /**
+     * Crea una nueva orden en el sistema
+     * Si la orden no llega a guardarse la reserva se libera; si la llamada de
+     * confirmación o liberación falla, la reserva expira sola en el servicio de productos
+     * @param orderDTO Datos de la orden a crear
+     * @return La orden creada con su ID asignado
+     */
+    @Override
+    @CircuitBreaker(name = "productService", fallbackMethod = "createOrderFallback")
+    public Mono<OrderDTO> createOrder(OrderDTO orderDTO) {
+        List<StockCheckItemDTO> stockChecks = toStockChecks(orderDTO.getItems());
+        
+        return productClient.checkAvailability(new AvailabilityRequestDTO(stockChecks))
+                .flatMap(availability -> {
+                    priceItems(orderDTO, availability);
+                    return productClient.reserveStock(new ReservationRequestDTO(stockChecks, null));
+                })
+                .flatMap(reservation -> Mono.zip(
+                                idGenerator.nextIds(IdGenerators.ORDERS, 1),
+                                idGenerator.nextIds(IdGenerators.ORDER_ITEMS, orderDTO.getItems().size()))
+                        .flatMap(ids -> saveOrder(orderDTO, ids.getT1().get(0), ids.getT2())
+                                .as(transactionalOperator::transactional))
+                        .flatMap(saved -> finishReservation(reservation, true).thenReturn(saved))
+                        .onErrorResume(e -> finishReservation(reservation, false).then(Mono.error(e))));
+    }
+    
+    /**
+     * Establece nombre, precio y subtotal de cada ítem y calcula el total de la orden
+     * @throws ResourceNotFoundException si algún producto no existe
+     * @throws InsufficientStockException si algún producto no tiene stock suficiente
+     */
+    private void priceItems(OrderDTO orderDTO, List<ProductAvailabilityDTO> response) {
+        Map<Long, ProductAvailabilityDTO> availability = response.stream()
+                .collect(Collectors.toMap(ProductAvailabilityDTO::getProductId, a -> a));
+        
+        for (OrderItemDTO itemDTO : orderDTO.getItems()) {
+            ProductAvailabilityDTO product = availability.get(itemDTO.getProductId());
+            
+            if (product == null || !product.isFound()) {
+                throw new ResourceNotFoundException("Producto no encontrado con id: " + itemDTO.getProductId());
+            }
+            
+            if (!product.isAvailable()) {
+                throw new InsufficientStockException("Stock insuficiente para el producto con ID: " + itemDTO.getProductId());
+            }
+            
+            itemDTO.setProductName(product.getName());
+            itemDTO.setUnitPrice(product.getPrice());
+            itemDTO.setSubtotal(product.getPrice().multiply(new BigDecimal(itemDTO.getQuantity())));
+        }
+        
+        orderDTO.setTotal(orderDTO.getItems().stream()
+                .map(OrderItemDTO::getSubtotal)
+                .reduce(BigDecimal.ZERO, BigDecimal::add));
+        orderDTO.setDate(LocalDateTime.now());
+        orderDTO.setStatus(OrderStatus.PENDING);
+    }
+    
+    /**
+     * Inserta la orden y sus ítems con los IDs ya reservados
+     * Se usa insert y no save: con el ID asignado, save lo trataría como una actualización
+     */
+    private Mono<OrderDTO> saveOrder(OrderDTO orderDTO, Long orderId, List<Long> itemIds) {
+        OrderRecord order = OrderRecord.builder()
+                .id(orderId)
+                .customer(orderDTO.getCustomer())
+                .customerKey(CustomerKey.of(orderDTO.getCustomer()))
+                .date(orderDTO.getDate())
+                .status(orderDTO.getStatus())
+                .total(orderDTO.getTotal())
+                .build();
+        
+        return entityTemplate.insert(order)
+                .flatMap(saved -> Flux.fromIterable(toItemRecords(saved.getId(), orderDTO.getItems(), itemIds))
+                        .concatMap(entityTemplate::insert)
+                        .collectList()
+                        .map(items -> mapToDTO(saved, items)));
+    }
+    
+    /**
+     * Confirma o libera la reserva; los errores solo se registran
+     */
+    private Mono<Void> finishReservation(StockReservationDTO reservation, boolean commit) {
+        Mono<StockReservationDTO> call = commit
+                ? productClient.commitReservation(reservation.getId())
+                : productClient.releaseReservation(reservation.getId());
+        return call
+                .doOnError(e -> log.error("No se pudo finalizar la reserva {}: {}", reservation.getId(), e.getMessage()))
+                .onErrorResume(e -> Mono.empty())
+                .then();
+    }
+    
+    private List<StockCheckItemDTO> toStockChecks(List<OrderItemDTO> items) {
+        return items.stream()
+                .map(item -> new StockCheckItemDTO(item.getProductId(), item.getQuantity()))
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Método de respaldo (fallback) para el circuit breaker
+     * Los errores de negocio (producto inexistente o sin stock) se propagan tal cual
+     * @param orderDTO Datos de la orden
+     * @param e Excepción que causó el fallo
+     * @return Un Mono con el error correspondiente
+     */
+    public Mono<OrderDTO> createOrderFallback(OrderDTO orderDTO, Exception e) {
+        if (e instanceof InsufficientStockException || e instanceof ResourceNotFoundException) {
+            rejectionMetrics.record(e);
+            return Mono.error(e);
+        }
+        log.error("Circuit breaker activado para crear orden: {}", e.getMessage());
+        return Mono.error(new RuntimeException("El servicio de productos no está disponible, intente más tarde", e));
+    }
+
+    /**
+     * Obtiene una orden por su ID
+     * @param id ID de la orden a buscar
+     * @return La orden encontrada o ResourceNotFoundException si no existe
+     */
+    @Override
+    public Mono<OrderDTO> getOrderById(Long id) {
+        return orderRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Orden no encontrada con id: " + id)))
+                .flatMap(this::withItems);
+    }
+
+    @Override
+    public Mono<Page<OrderDTO>> getAllOrders(Pageable pageable) {
+        return toPage(orderRepository.findAllBy(pageable), orderRepository.count(), pageable);
+    }
+
+    @Override
+    public Mono<Page<OrderDTO>> getOrdersByCustomer(String customer, CustomerMatch match, Pageable pageable) {
+        String pattern = match.pattern(customer);
+        return toPage(orderRepository.findByCustomerKeyLike(pattern, pageable),
+                orderRepository.countByCustomerKeyLike(pattern), pageable);
+    }
+
+    @Override
+    public Mono<Page<OrderDTO>> getOrdersByStatus(OrderStatus status, Pageable pageable) {
+        return toPage(orderRepository.findByStatus(status, pageable),
+                orderRepository.countByStatus(status), pageable);
+    }
+
+    @Override
+    public Mono<Page<OrderDTO>> getOrdersByCustomerAndStatus(String customer, CustomerMatch match, OrderStatus status,
+                                                             Pageable pageable) {
+        String pattern = match.pattern(customer);
+        return toPage(orderRepository.findByCustomerKeyLikeAndStatus(pattern, status, pageable),
+                orderRepository.countByCustomerKeyLikeAndStatus(pattern, status), pageable);
+    }
+
+    /**
+     * Actualiza el estado de una orden existente
+     * @param id ID de la orden a actualizar
+     * @param status Nuevo estado
+     * @return La orden actualizada o ResourceNotFoundException si no existe
+     */
+    @Override
+    public Mono<OrderDTO> updateOrderStatus(Long id, OrderStatus status) {
+        return orderRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Orden no encontrada con id: " + id)))
+                .flatMap(order -> {
+                    order.setStatus(status);
+                    return orderRepository.save(order);
+                })
+                .flatMap(this::withItems)
+                .as(transactionalOperator::transactional);
+    }
+    
+    private Mono<OrderDTO> withItems(OrderRecord order) {
+        return orderItemRepository.findByOrderId(order.getId())
+                .collectList()
+                .map(items -> mapToDTO(order, items));
+    }
+    
+    /**
+     * Arma la página cargando los ítems de todas sus órdenes en una sola consulta
+     */
+    private Mono<Page<OrderDTO>> toPage(Flux<OrderRecord> orders, Mono<Long> count, Pageable pageable) {
+        Mono<List<OrderDTO>> content = orders.collectList().flatMap(records -> {
+            if (records.isEmpty()) {
+                return Mono.just(List.<OrderDTO>of());
+            }
+            List<Long> ids = records.stream().map(OrderRecord::getId).collect(Collectors.toList());
+            return orderItemRepository.findByOrderIdIn(ids)
+                    .collectMultimap(OrderItemRecord::getOrderId)
+                    .map(itemsByOrder -> records.stream()
+                            .map(order -> mapToDTO(order, itemsByOrder.getOrDefault(order.getId(), List.of())))
+                            .collect(Collectors.toList()));
+        });
+        return Mono.zip(content, count, (dtos, total) -> new PageImpl<>(dtos, pageable, total));
+    }
+    
+    private List<OrderItemRecord> toItemRecords(Long orderId, List<OrderItemDTO> items, List<Long> itemIds) {
+        return IntStream.range(0, items.size())
+                .mapToObj(i -> OrderItemRecord.builder()
+                        .id(itemIds.get(i))
+                        .orderId(orderId)
+                        .productId(items.get(i).getProductId())
+                        .productName(items.get(i).getProductName())
+                        .quantity(items.get(i).getQuantity())
+                        .unitPrice(items.get(i).getUnitPrice())
+                        .subtotal(items.get(i).getSubtotal())
+                        .build())
+                .collect(Collectors.toList());
+    }
+    
+    private OrderDTO mapToDTO(OrderRecord order, Collection<OrderItemRecord> items) {
+        return OrderDTO.builder()
+                .id(order.getId())
+                .customer(order.getCustomer())
+                .date(order.getDate())
+                .status(order.getStatus())
+                .total(order.getTotal())
+                .items(items.stream()
+                        .map(item -> OrderItemDTO.builder()
+                                .id(item.getId())
+                                .productId(item.getProductId())
+                                .productName(item.getProductName())
+                                .quantity(item.getQuantity())
+                                .unitPrice(item.getUnitPrice())
+                                .subtotal(item.getSubtotal())
+                                .build())
+                        .collect(Collectors.toList()))
+                .build();
+    }
+}
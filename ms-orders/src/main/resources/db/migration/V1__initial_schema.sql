@@ -0,0 +1,24 @@
+-- Esquema inicial de ms-orders, igual al que generaba ddl-auto=update.
+-- En bases creadas antes de Flyway esta versión se toma como baseline y no se ejecuta.
+
+create table orders (
+    id bigint not null auto_increment,
+    customer varchar(255),
+    date datetime(6),
+    status enum ('PENDING','CONFIRMED','SHIPPED','DELIVERED','CANCELLED'),
+    total decimal(38,2),
+    primary key (id)
+) engine=InnoDB;
+
+create table order_items (
+    id bigint not null auto_increment,
+    order_id bigint,
+    product_id bigint,
+    product_name varchar(255),
+    quantity integer,
+    unit_price decimal(38,2),
+    subtotal decimal(38,2),
+    primary key (id)
+) engine=InnoDB;
+
+alter table order_items add constraint fk_order_items_order foreign key (order_id) references orders (id);
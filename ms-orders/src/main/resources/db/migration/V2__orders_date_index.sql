@@ -0,0 +1,3 @@
+-- Paginación por fecha con desempate por id (listado general y filtro solo por fecha).
+
+create index idx_orders_date_id on orders (date, id);
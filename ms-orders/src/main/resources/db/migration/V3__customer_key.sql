@@ -0,0 +1,6 @@
+-- Clave normalizada del cliente (minúsculas, sin acentos ni espacios repetidos) para buscar por índice.
+-- Las órdenes existentes quedan con customer_key nulo; CustomerKeyBackfillJob la completa en lotes.
+
+alter table orders add column customer_key varchar(255);
+
+create index idx_orders_customer_key_status_date on orders (customer_key, status, date);
@@ -0,0 +1,12 @@
+-- Índices para las consultas de OrderRepository.
+-- En InnoDB create index es online: no bloquea lecturas ni escrituras mientras se arma.
+-- El filtro solo por fecha ya lo cubre idx_orders_date_id (V2).
+
+-- Búsqueda por estado, ordenada por fecha
+create index idx_orders_status_date on orders (status, date);
+
+-- Carga de ítems por orden (join fetch de findAllWithItemsByIdIn)
+create index idx_order_items_order_id on order_items (order_id);
+
+-- Consultas de ítems por producto
+create index idx_order_items_product_id on order_items (product_id);
@@ -0,0 +1,15 @@
+-- Tabla de generadores de IDs (pooled-lo, bloques de 50) para orders y order_items.
+-- Cada fila arranca después del máximo ID existente, así los nuevos bloques no chocan con las filas ya insertadas.
+-- Las columnas id conservan auto_increment: Hibernate y el stack reactivo insertan siempre con el ID explícito.
+
+create table id_generators (
+    sequence_name varchar(255) not null,
+    next_val bigint,
+    primary key (sequence_name)
+) engine=InnoDB;
+
+insert into id_generators (sequence_name, next_val)
+select 'orders', coalesce(max(id), 0) + 1 from orders;
+
+insert into id_generators (sequence_name, next_val)
+select 'order_items', coalesce(max(id), 0) + 1 from order_items;
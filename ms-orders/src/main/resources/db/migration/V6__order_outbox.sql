@@ -0,0 +1,23 @@
+-- Outbox de confirmación de órdenes: una fila por orden aceptada (PENDING) que falta confirmar.
+-- Se inserta en la misma transacción que la orden y se borra al confirmarla o cancelarla.
+-- claimed_by / claimed_until: despachador que tomó la fila y hasta cuándo; al vencer, otro la puede retomar.
+
+create table order_outbox (
+    id bigint not null,
+    order_id bigint not null,
+    created_at datetime(6) not null,
+    available_at datetime(6) not null,
+    attempts integer not null,
+    claimed_by varchar(255),
+    claimed_until datetime(6),
+    primary key (id)
+) engine=InnoDB;
+
+create unique index uk_order_outbox_order_id on order_outbox (order_id);
+
+-- Búsqueda de eventos listos para despachar
+create index idx_order_outbox_available_at on order_outbox (available_at);
+
+alter table order_outbox add constraint fk_order_outbox_order foreign key (order_id) references orders (id);
+
+insert into id_generators (sequence_name, next_val) values ('order_outbox', 1);
@@ -0,0 +1,16 @@
+-- Claves Idempotency-Key de POST /api/orders (orders.idempotency.store=database).
+-- status_code nulo: la orden se está creando; la fila vence a los in-flight-timeout si la instancia se cae.
+-- Con respuesta guardada vence a los orders.idempotency.ttl y la purga periódica la borra.
+
+create table idempotency_keys (
+    idempotency_key varchar(255) not null,
+    fingerprint varchar(255) not null,
+    status_code integer,
+    response_body longtext,
+    created_at datetime(6) not null,
+    expires_at datetime(6) not null,
+    primary key (idempotency_key)
+) engine=InnoDB;
+
+-- Purga de claves vencidas
+create index idx_idempotency_keys_expires_at on idempotency_keys (expires_at);
@@ -0,0 +1,159 @@
+package com.parcial.msorders.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.parcial.msorders.client.ProductClient;
+import com.parcial.msorders.dto.AvailabilityRequestDTO;
+import com.parcial.msorders.dto.OrderDTO;
+import com.parcial.msorders.dto.ProductAvailabilityDTO;
+import com.parcial.msorders.exception.ErrorDetails;
+import com.parcial.msorders.repository.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * POST /api/orders con Idempotency-Key sobre el almacén en base (tabla idempotency_keys):
+ * peticiones concurrentes con la misma clave crean una sola orden y las demás reciben la respuesta
+ * guardada; la misma clave con otra orden responde 422.
+ * La consulta de productos tarda 200 ms para que las peticiones se superpongan mientras la primera crea.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:orders-idempotency;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+        "management.tracing.enabled=false",
+        "jdbc.datasource-proxy.enabled=false",
+        "products.cache.enabled=false",
+        "orders.idempotency.store=database",
+        "orders.outbox.dispatcher.enabled=false",
+        "orders.customer-key.backfill.enabled=false"
+})
+@AutoConfigureMockMvc
+class OrderControllerIdempotencyTest {
+
+    private static final int CONCURRENT_REQUESTS = 8;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @MockBean
+    private ProductClient productClient;
+
+    private ExecutorService clients;
+
+    @BeforeEach
+    void setUp() {
+        clients = Executors.newFixedThreadPool(CONCURRENT_REQUESTS);
+        when(productClient.checkAvailability(any())).thenAnswer(invocation -> {
+            Thread.sleep(200);
+            AvailabilityRequestDTO request = invocation.getArgument(0);
+            return ResponseEntity.ok(request.getItems().stream()
+                    .map(item -> ProductAvailabilityDTO.builder()
+                            .productId(item.getProductId())
+                            .name("Producto " + item.getProductId())
+                            .price(BigDecimal.TEN)
+                            .stock(100)
+                            .found(true)
+                            .available(true)
+                            .build())
+                    .collect(Collectors.toList()));
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        clients.shutdownNow();
+    }
+
+    @Test
+    void concurrentRequestsWithTheSameKeyCreateOneOrder() throws Exception {
+        String body = order("Cliente concurrente", 2);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<MockHttpServletResponse>> responses = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+            responses.add(clients.submit(() -> {
+                start.await();
+                return create("clave-concurrente", body);
+            }));
+        }
+        start.countDown();
+
+        List<Long> orderIds = new ArrayList<>();
+        int replayed = 0;
+        for (Future<MockHttpServletResponse> future : responses) {
+            MockHttpServletResponse response = future.get(30, TimeUnit.SECONDS);
+            assertThat(response.getStatus()).isEqualTo(202);
+            orderIds.add(objectMapper.readValue(response.getContentAsString(), OrderDTO.class).getId());
+            if ("true".equals(response.getHeader("Idempotent-Replayed"))) {
+                replayed++;
+            }
+        }
+
+        assertThat(orderIds).containsOnly(orderIds.get(0));
+        assertThat(replayed).isEqualTo(CONCURRENT_REQUESTS - 1);
+        assertThat(orderRepository.findAll())
+                .filteredOn(order -> order.getCustomer().equals("Cliente concurrente"))
+                .hasSize(1);
+    }
+
+    @Test
+    void sameKeyWithAnotherOrderIsRejected() throws Exception {
+        assertThat(create("clave-reutilizada", order("Cliente reutiliza", 1)).getStatus()).isEqualTo(202);
+
+        MockHttpServletResponse response = create("clave-reutilizada", order("Cliente reutiliza", 3));
+
+        assertThat(response.getStatus()).isEqualTo(422);
+        assertThat(objectMapper.readValue(response.getContentAsString(), ErrorDetails.class).getErrorCode())
+                .isEqualTo("CLAVE_IDEMPOTENCIA_REUTILIZADA");
+        assertThat(orderRepository.findAll())
+                .filteredOn(order -> order.getCustomer().equals("Cliente reutiliza"))
+                .hasSize(1);
+    }
+
+    private MockHttpServletResponse create(String key, String body) throws Exception {
+        return mockMvc.perform(post("/api/orders")
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andReturn()
+                .getResponse();
+    }
+
+    private static String order(String customer, int quantity) {
+        return "{\"customer\":\"" + customer + "\",\"total\":1,"
+                + "\"items\":[{\"productId\":1,\"quantity\":" + quantity + "}]}";
+    }
+}
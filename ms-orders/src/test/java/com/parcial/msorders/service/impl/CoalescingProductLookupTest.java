@@ -0,0 +1,266 @@
+package com.parcial.msorders.service.impl;
+
+import com.parcial.msorders.client.ProductClient;
+import com.parcial.msorders.dto.AvailabilityRequestDTO;
+import com.parcial.msorders.dto.ProductAvailabilityDTO;
+import com.parcial.msorders.dto.StockCheckItemDTO;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.LinkData;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Consultas compartidas de productos: single-flight sobre un producto en consulta, micro-lotes
+ * de productos distintos con el resultado y el error repartidos a cada orden, y el span del lote
+ * enlazado a las trazas de las órdenes.
+ * La ventana es larga (300 ms) para que los pedidos concurrentes caigan siempre en el mismo lote.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:orders-coalescing;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+        "management.tracing.sampling.probability=1.0",
+        // Las exclusiones de application.properties más el exportador OTLP: los spans se capturan en memoria
+        "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration,"
+                + "org.springframework.boot.autoconfigure.data.r2dbc.R2dbcDataAutoConfiguration,"
+                + "org.springframework.boot.autoconfigure.data.r2dbc.R2dbcRepositoriesAutoConfiguration,"
+                + "org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration,"
+                + "org.springframework.boot.actuate.autoconfigure.tracing.otlp.OtlpAutoConfiguration",
+        "jdbc.datasource-proxy.enabled=false",
+        "products.cache.enabled=false",
+        "products.lookup.coalescing.window=PT0.3S",
+        "orders.outbox.dispatcher.enabled=false",
+        "orders.customer-key.backfill.enabled=false"
+})
+@AutoConfigureObservability(metrics = false)
+class CoalescingProductLookupTest {
+
+    @Autowired
+    private CoalescingProductLookup lookup;
+
+    @Autowired
+    private Tracer tracer;
+
+    @Autowired
+    private SdkTracerProvider tracerProvider;
+
+    @Autowired
+    private CapturingSpanExporter spans;
+
+    @MockBean
+    private ProductClient productClient;
+
+    private ExecutorService callers;
+
+    @BeforeEach
+    void setUp() {
+        callers = Executors.newFixedThreadPool(4);
+        // Los spans de los tests anteriores se exportan en lote: se vacían antes de empezar
+        tracerProvider.forceFlush().join(5, TimeUnit.SECONDS);
+        spans.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        reset(productClient);
+    }
+
+    @Test
+    void productInFlightIsFetchedOnceForConcurrentOrders() throws Exception {
+        CountDownLatch called = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(productClient.checkAvailability(any())).thenAnswer(invocation -> {
+            called.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return available(invocation.getArgument(0));
+        });
+
+        Future<Map<Long, ProductAvailabilityDTO>> first = callers.submit(() -> lookup.lookup(List.of(1L)));
+        assertThat(called.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<Map<Long, ProductAvailabilityDTO>> second = callers.submit(() -> lookup.lookup(List.of(1L)));
+        Thread.sleep(100);
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS).get(1L).getStock()).isEqualTo(101);
+        assertThat(second.get(5, TimeUnit.SECONDS).get(1L)).isSameAs(first.get().get(1L));
+        verify(productClient, times(1)).checkAvailability(any());
+    }
+
+    @Test
+    void distinctProductsShareOneCallAndEachOrderGetsItsOwn() throws Exception {
+        when(productClient.checkAvailability(any())).thenAnswer(invocation -> available(invocation.getArgument(0)));
+
+        CountDownLatch start = new CountDownLatch(1);
+        Future<Map<Long, ProductAvailabilityDTO>> first = callers.submit(() -> {
+            start.await();
+            return lookup.lookup(List.of(1L, 2L));
+        });
+        Future<Map<Long, ProductAvailabilityDTO>> second = callers.submit(() -> {
+            start.await();
+            return lookup.lookup(List.of(2L, 3L));
+        });
+        start.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).containsOnlyKeys(1L, 2L);
+        assertThat(second.get(5, TimeUnit.SECONDS)).containsOnlyKeys(2L, 3L);
+        assertThat(second.get().get(3L).getStock()).isEqualTo(103);
+        ArgumentCaptor<AvailabilityRequestDTO> request = ArgumentCaptor.forClass(AvailabilityRequestDTO.class);
+        verify(productClient, times(1)).checkAvailability(request.capture());
+        assertThat(request.getValue().getItems())
+                .extracting(StockCheckItemDTO::getProductId)
+                .containsExactlyInAnyOrder(1L, 2L, 3L);
+    }
+
+    @Test
+    void failedCallReachesEveryOrderInTheBatch() throws Exception {
+        when(productClient.checkAvailability(any())).thenThrow(new IllegalStateException("productos caído"));
+
+        CountDownLatch start = new CountDownLatch(1);
+        Future<Map<Long, ProductAvailabilityDTO>> first = callers.submit(() -> {
+            start.await();
+            return lookup.lookup(List.of(1L));
+        });
+        Future<Map<Long, ProductAvailabilityDTO>> second = callers.submit(() -> {
+            start.await();
+            return lookup.lookup(List.of(2L));
+        });
+        start.countDown();
+
+        for (Future<Map<Long, ProductAvailabilityDTO>> order : List.of(first, second)) {
+            assertThatThrownBy(() -> order.get(5, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(IllegalStateException.class)
+                    .hasRootCauseMessage("productos caído");
+        }
+        verify(productClient, times(1)).checkAvailability(any());
+
+        // Los productos salen de la consulta fallida: el siguiente pedido vuelve a llamar
+        reset(productClient);
+        when(productClient.checkAvailability(any())).thenAnswer(invocation -> available(invocation.getArgument(0)));
+        assertThat(lookup.lookup(List.of(1L))).containsOnlyKeys(1L);
+    }
+
+    @Test
+    void batchSpanIsChildOfFirstOrderAndLinkedToTheOthers() throws Exception {
+        when(productClient.checkAvailability(any())).thenAnswer(invocation -> available(invocation.getArgument(0)));
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> orders = List.of(
+                callers.submit(() -> lookupInSpan("order-a", 1L, start)),
+                callers.submit(() -> lookupInSpan("order-b", 2L, start)));
+        start.countDown();
+        List<String> orderSpanIds = List.of(orders.get(0).get(5, TimeUnit.SECONDS), orders.get(1).get(5, TimeUnit.SECONDS));
+
+        assertThat(tracerProvider.forceFlush().join(5, TimeUnit.SECONDS).isSuccess()).isTrue();
+        SpanData batch = spans.named("product-lookup-batch");
+        List<String> related = batch.getLinks().stream()
+                .map(link -> link.getSpanContext().getSpanId())
+                .collect(Collectors.toList());
+        related.add(batch.getParentSpanContext().getSpanId());
+        assertThat(related).containsExactlyInAnyOrderElementsOf(orderSpanIds);
+        assertThat(batch.getLinks()).extracting(LinkData::getSpanContext).hasSize(1);
+    }
+
+    private String lookupInSpan(String name, Long productId, CountDownLatch start) throws InterruptedException {
+        start.await();
+        Span span = tracer.nextSpan().name(name).start();
+        try (Tracer.SpanInScope scope = tracer.withSpan(span)) {
+            lookup.lookup(List.of(productId));
+            return span.context().spanId();
+        } finally {
+            span.end();
+        }
+    }
+
+    private static ResponseEntity<List<ProductAvailabilityDTO>> available(AvailabilityRequestDTO request) {
+        return ResponseEntity.ok(request.getItems().stream()
+                .map(item -> ProductAvailabilityDTO.builder()
+                        .productId(item.getProductId())
+                        .stock(100 + item.getProductId().intValue())
+                        .found(true)
+                        .available(true)
+                        .build())
+                .collect(Collectors.toList()));
+    }
+
+    @TestConfiguration
+    static class SpanCaptureConfig {
+
+        @Bean
+        CapturingSpanExporter capturingSpanExporter() {
+            return new CapturingSpanExporter();
+        }
+    }
+
+    /**
+     * Guarda los spans exportados en memoria
+     */
+    static class CapturingSpanExporter implements SpanExporter {
+
+        private final List<SpanData> exported = new CopyOnWriteArrayList<>();
+
+        @Override
+        public CompletableResultCode export(Collection<SpanData> spans) {
+            exported.addAll(spans);
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        void clear() {
+            exported.clear();
+        }
+
+        SpanData named(String name) {
+            return exported.stream()
+                    .filter(span -> span.getName().equals(name))
+                    .findFirst()
+                    .orElseThrow(() -> new AssertionError("No se exportó el span " + name));
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.parcial.msorders.service.impl;
+
+import com.parcial.msorders.dto.OrderDTO;
+import com.parcial.msorders.dto.StoredOrderResponse;
+import com.parcial.msorders.exception.IdempotencyKeyReusedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Almacén de claves por instancia: una sola creación por clave aunque lleguen juntas,
+ * la misma respuesta para las que esperaban y rechazo de la clave con otra huella.
+ */
+class InMemoryIdempotencyStoreTest {
+
+    private static final int CONCURRENT_REQUESTS = 8;
+
+    private final InMemoryIdempotencyStore store =
+            new InMemoryIdempotencyStore(100, Duration.ofHours(1), Duration.ofSeconds(5));
+    private final ExecutorService clients = Executors.newFixedThreadPool(CONCURRENT_REQUESTS);
+    private final AtomicInteger created = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        clients.shutdownNow();
+    }
+
+    @Test
+    void concurrentRequestsWithTheSameKeyCreateOnce() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<StoredOrderResponse>> responses = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+            responses.add(clients.submit(() -> {
+                start.await();
+                return store.execute("clave", "huella", this::create);
+            }));
+        }
+        start.countDown();
+
+        List<Long> orderIds = new ArrayList<>();
+        int replayed = 0;
+        for (Future<StoredOrderResponse> future : responses) {
+            StoredOrderResponse response = future.get(10, TimeUnit.SECONDS);
+            orderIds.add(response.getOrder().getId());
+            replayed += response.isReplayed() ? 1 : 0;
+        }
+
+        assertThat(created).hasValue(1);
+        assertThat(orderIds).containsOnly(1L);
+        assertThat(replayed).isEqualTo(CONCURRENT_REQUESTS - 1);
+    }
+
+    @Test
+    void sameKeyWithAnotherFingerprintIsRejected() {
+        store.execute("clave", "huella", this::create);
+
+        assertThatThrownBy(() -> store.execute("clave", "otra huella", this::create))
+                .isInstanceOf(IdempotencyKeyReusedException.class);
+        assertThat(created).hasValue(1);
+    }
+
+    @Test
+    void failedCreationReleasesTheKey() {
+        assertThatThrownBy(() -> store.execute("clave", "huella", () -> {
+            throw new IllegalStateException("productos caído");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(store.execute("clave", "huella", this::create).isReplayed()).isFalse();
+    }
+
+    private StoredOrderResponse create() {
+        try {
+            Thread.sleep(100);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return new StoredOrderResponse(202, OrderDTO.builder().id((long) created.incrementAndGet()).build(), false);
+    }
+}
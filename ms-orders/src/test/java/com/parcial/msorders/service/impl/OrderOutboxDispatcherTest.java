@@ -0,0 +1,239 @@
+package com.parcial.msorders.service.impl;
+
+import com.parcial.msorders.client.ProductClient;
+import com.parcial.msorders.dto.AvailabilityRequestDTO;
+import com.parcial.msorders.dto.BatchReservationRequestDTO;
+import com.parcial.msorders.dto.OrderDTO;
+import com.parcial.msorders.dto.OrderItemDTO;
+import com.parcial.msorders.dto.ProductAvailabilityDTO;
+import com.parcial.msorders.dto.ReservationRequestDTO;
+import com.parcial.msorders.dto.ReservationResultDTO;
+import com.parcial.msorders.exception.OrderInProgressException;
+import com.parcial.msorders.model.Order;
+import com.parcial.msorders.model.OrderOutboxEvent;
+import com.parcial.msorders.model.OrderStatus;
+import com.parcial.msorders.repository.OrderOutboxRepository;
+import com.parcial.msorders.repository.OrderRepository;
+import com.parcial.msorders.service.OrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Despacho del outbox con el despachador encendido y el servicio de productos simulado:
+ * el lease de los eventos, el reintento de un lote fallido con las mismas referencias de reserva,
+ * el cierre de cada orden una sola vez y el 409 al cambiar a mano una orden que sigue en el outbox.
+ * Corre sobre H2 con el esquema de las migraciones de Flyway.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:orders-outbox;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+        "management.tracing.enabled=false",
+        "jdbc.datasource-proxy.enabled=false",
+        "products.cache.enabled=false",
+        "orders.outbox.dispatcher.poll-interval=PT0.05S",
+        "orders.outbox.dispatcher.retry-delay=PT0.2S",
+        "orders.customer-key.backfill.enabled=false"
+})
+class OrderOutboxDispatcherTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderOutboxRepository outboxRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @MockBean
+    private ProductClient productClient;
+
+    /**
+     * Referencias enviadas al servicio de productos, con la cantidad de veces de cada una
+     */
+    private final Map<String, Integer> sentReferences = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void stubCatalog() {
+        when(productClient.checkAvailability(any())).thenAnswer(invocation -> {
+            AvailabilityRequestDTO request = invocation.getArgument(0);
+            return ResponseEntity.ok(request.getItems().stream()
+                    .map(item -> ProductAvailabilityDTO.builder()
+                            .productId(item.getProductId())
+                            .name("Producto " + item.getProductId())
+                            .price(BigDecimal.TEN)
+                            .stock(100)
+                            .found(true)
+                            .available(true)
+                            .build())
+                    .collect(Collectors.toList()));
+        });
+    }
+
+    @Test
+    void leaseIsExclusiveUntilItExpires() {
+        Order order = orderRepository.save(Order.builder()
+                .customer("Lease")
+                .date(LocalDateTime.now())
+                .status(OrderStatus.PENDING)
+                .total(BigDecimal.TEN)
+                .items(new ArrayList<>())
+                .build());
+        // Disponible recién mañana: el despachador en marcha no lo toma
+        OrderOutboxEvent event = outboxRepository.save(OrderOutboxEvent.builder()
+                .orderId(order.getId())
+                .createdAt(LocalDateTime.now())
+                .availableAt(LocalDateTime.now().plusDays(1))
+                .build());
+        List<Long> ids = List.of(event.getId());
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expired = now.plusSeconds(31);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            assertThat(outboxRepository.claim(ids, "a", now.plusSeconds(30), now)).isEqualTo(1);
+            assertThat(outboxRepository.claim(ids, "b", now.plusSeconds(30), now)).isZero();
+            assertThat(outboxRepository.claim(ids, "b", expired.plusSeconds(30), expired)).isEqualTo(1);
+        });
+
+        assertThat(outboxRepository.findByClaimedBy("a")).isEmpty();
+        assertThat(outboxRepository.findByClaimedBy("b")).extracting(OrderOutboxEvent::getId).containsExactly(event.getId());
+        // El despachador que perdió el lease no puede cerrar el evento
+        assertThat(transactionTemplate.<Integer>execute(status -> outboxRepository.deleteClaimed(ids, "a"))).isZero();
+        assertThat(transactionTemplate.<Integer>execute(status -> outboxRepository.deleteClaimed(ids, "b"))).isEqualTo(1);
+    }
+
+    @Test
+    void failedBatchIsRetriedWithTheSameReferenceAndConfirmedOnce() throws InterruptedException {
+        AtomicBoolean failed = new AtomicBoolean();
+        when(productClient.reserveStockBatch(any())).thenAnswer(invocation -> {
+            BatchReservationRequestDTO request = invocation.getArgument(0);
+            recordReferences(request);
+            if (failed.compareAndSet(false, true)) {
+                throw new IllegalStateException("productos caído");
+            }
+            return reply(request, reference -> ReservationResultDTO.Outcome.RESERVED);
+        });
+
+        OrderDTO accepted = orderService.acceptOrder(newOrder());
+        String reference = "order-" + accepted.getId();
+
+        awaitStatus(accepted.getId(), OrderStatus.CONFIRMED);
+        assertThat(outboxRepository.existsByOrderId(accepted.getId())).isFalse();
+        assertThat(sentReferences.get(reference)).isEqualTo(2);
+
+        // Sin evento no hay más reservas para la orden
+        Thread.sleep(300);
+        assertThat(sentReferences.get(reference)).isEqualTo(2);
+    }
+
+    @Test
+    void rejectedReservationCancelsTheOrder() {
+        when(productClient.reserveStockBatch(any())).thenAnswer(invocation ->
+                reply(invocation.getArgument(0), reference -> ReservationResultDTO.Outcome.REJECTED));
+
+        OrderDTO accepted = orderService.acceptOrder(newOrder());
+
+        awaitStatus(accepted.getId(), OrderStatus.CANCELLED);
+        assertThat(outboxRepository.existsByOrderId(accepted.getId())).isFalse();
+    }
+
+    @Test
+    void manualStatusChangeIsRejectedWhileTheOrderIsInTheOutbox() {
+        AtomicBoolean available = new AtomicBoolean();
+        when(productClient.reserveStockBatch(any())).thenAnswer(invocation -> {
+            if (!available.get()) {
+                throw new IllegalStateException("productos caído");
+            }
+            return reply(invocation.getArgument(0), reference -> ReservationResultDTO.Outcome.RESERVED);
+        });
+
+        OrderDTO accepted = orderService.acceptOrder(newOrder());
+
+        assertThatThrownBy(() -> orderService.updateOrderStatus(accepted.getId(), OrderStatus.CANCELLED))
+                .isInstanceOf(OrderInProgressException.class);
+        assertThat(orderRepository.findById(accepted.getId())).get()
+                .extracting(Order::getStatus).isEqualTo(OrderStatus.PENDING);
+
+        available.set(true);
+        awaitStatus(accepted.getId(), OrderStatus.CONFIRMED);
+        assertThat(orderService.updateOrderStatus(accepted.getId(), OrderStatus.SHIPPED).getStatus())
+                .isEqualTo(OrderStatus.SHIPPED);
+    }
+
+    private void recordReferences(BatchReservationRequestDTO request) {
+        request.getReservations().forEach(reservation ->
+                sentReferences.merge(reservation.getReference(), 1, Integer::sum));
+    }
+
+    private static ResponseEntity<List<ReservationResultDTO>> reply(
+            BatchReservationRequestDTO request, Function<String, ReservationResultDTO.Outcome> outcome) {
+        return ResponseEntity.ok(request.getReservations().stream()
+                .map(ReservationRequestDTO::getReference)
+                .map(reference -> ReservationResultDTO.builder()
+                        .reference(reference)
+                        .outcome(outcome.apply(reference))
+                        .errorCode(outcome.apply(reference) == ReservationResultDTO.Outcome.REJECTED
+                                ? "STOCK_INSUFICIENTE" : null)
+                        .build())
+                .collect(Collectors.toList()));
+    }
+
+    private void awaitStatus(Long orderId, OrderStatus expected) {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        OrderStatus status = null;
+        while (System.nanoTime() < deadline) {
+            status = orderRepository.findById(orderId).map(Order::getStatus).orElseThrow();
+            if (status == expected) {
+                return;
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        assertThat(status).as("estado de la orden %d", orderId).isEqualTo(expected);
+    }
+
+    private static OrderDTO newOrder() {
+        return OrderDTO.builder()
+                .customer("Cliente outbox")
+                .total(BigDecimal.ONE)
+                .items(List.of(
+                        OrderItemDTO.builder().productId(1L).quantity(2).build(),
+                        OrderItemDTO.builder().productId(2L).quantity(1).build()))
+                .build();
+    }
+}
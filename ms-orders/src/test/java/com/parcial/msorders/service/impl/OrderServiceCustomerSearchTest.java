@@ -0,0 +1,112 @@
+package com.parcial.msorders.service.impl;
+
+import com.parcial.msorders.dto.OrderDTO;
+import com.parcial.msorders.model.CustomerMatch;
+import com.parcial.msorders.model.Order;
+import com.parcial.msorders.model.OrderStatus;
+import com.parcial.msorders.repository.OrderRepository;
+import com.parcial.msorders.service.OrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Búsqueda de órdenes por cliente sobre la clave normalizada (customer_key): sin distinguir
+ * mayúsculas, acentos ni espacios repetidos, por comienzo (PREFIX) o nombre completo (EXACT),
+ * y con los comodines de LIKE del texto buscado tomados literalmente.
+ * Corre sobre H2 con el esquema de las migraciones de Flyway.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:orders-customer-search;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+        "management.tracing.enabled=false",
+        "jdbc.datasource-proxy.enabled=false",
+        "products.cache.enabled=false",
+        "orders.outbox.dispatcher.enabled=false",
+        "orders.customer-key.backfill.enabled=false"
+})
+class OrderServiceCustomerSearchTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @BeforeEach
+    void createOrders() {
+        if (orderRepository.count() > 0) {
+            return;
+        }
+        orderRepository.saveAll(List.of(
+                order("José Pérez", OrderStatus.PENDING),
+                order("  JOSE   perez ", OrderStatus.CONFIRMED),
+                order("Josefina Ruiz", OrderStatus.PENDING),
+                order("María José", OrderStatus.PENDING),
+                order("100%_Ofertas", OrderStatus.PENDING),
+                order("1000 Ofertas", OrderStatus.PENDING)));
+    }
+
+    @Test
+    void prefixIgnoresCaseAccentsAndSpaces() {
+        assertThat(customers("JOSÉ", CustomerMatch.PREFIX))
+                .containsExactlyInAnyOrder("José Pérez", "  JOSE   perez ", "Josefina Ruiz");
+        assertThat(customers("jose  per", CustomerMatch.PREFIX))
+                .containsExactlyInAnyOrder("José Pérez", "  JOSE   perez ");
+    }
+
+    @Test
+    void exactMatchesTheWholeName() {
+        assertThat(customers("jose perez", CustomerMatch.EXACT))
+                .containsExactlyInAnyOrder("José Pérez", "  JOSE   perez ");
+        assertThat(customers("José", CustomerMatch.EXACT)).isEmpty();
+    }
+
+    @Test
+    void likeWildcardsAreLiteral() {
+        assertThat(customers("100%", CustomerMatch.PREFIX)).containsExactly("100%_Ofertas");
+        assertThat(customers("100_", CustomerMatch.PREFIX)).isEmpty();
+        assertThat(customers("%", CustomerMatch.PREFIX)).isEmpty();
+    }
+
+    @Test
+    void customerAndStatusUseTheSameKey() {
+        assertThat(orderService.getOrdersByCustomerAndStatus("JOSE PEREZ", CustomerMatch.EXACT,
+                        OrderStatus.CONFIRMED, PageRequest.of(0, 10)).getContent())
+                .extracting(OrderDTO::getCustomer)
+                .containsExactly("  JOSE   perez ");
+    }
+
+    private List<String> customers(String customer, CustomerMatch match) {
+        return orderService.getOrdersByCustomer(customer, match, PageRequest.of(0, 10, Sort.by("id")))
+                .getContent().stream()
+                .map(OrderDTO::getCustomer)
+                .collect(Collectors.toList());
+    }
+
+    private Order order(String customer, OrderStatus status) {
+        return Order.builder()
+                .customer(customer)
+                .date(LocalDateTime.of(2024, 1, 1, 12, 0))
+                .status(status)
+                .total(BigDecimal.TEN)
+                .items(new ArrayList<>())
+                .build();
+    }
+}
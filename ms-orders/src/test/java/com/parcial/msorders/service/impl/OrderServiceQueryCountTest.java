@@ -0,0 +1,147 @@
+package com.parcial.msorders.service.impl;
+
+import com.parcial.msorders.dto.OrderDTO;
+import com.parcial.msorders.model.CustomerMatch;
+import com.parcial.msorders.model.Order;
+import com.parcial.msorders.model.OrderItem;
+import com.parcial.msorders.model.OrderStatus;
+import com.parcial.msorders.repository.OrderRepository;
+import com.parcial.msorders.service.OrderService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica que las páginas de órdenes con ítems se cargan con una cantidad fija de consultas
+ * (IDs de la página, conteo y órdenes con sus ítems), sin importar el tamaño de la página.
+ * Si vuelve el N+1 (una consulta de ítems por orden) la cuenta crece con la página y el test falla.
+ * Corre sobre H2 con el esquema de las migraciones de Flyway.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:orders-query-count;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+        "management.tracing.enabled=false",
+        "jdbc.datasource-proxy.enabled=false",
+        "products.cache.enabled=false",
+        "orders.outbox.dispatcher.enabled=false",
+        "orders.customer-key.backfill.enabled=false"
+})
+class OrderServiceQueryCountTest {
+
+    private static final int ORDERS_PER_CUSTOMER = 120;
+    private static final int ITEMS_PER_ORDER = 4;
+    private static final long MAX_STATEMENTS = 3;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void createOrders() {
+        if (orderRepository.count() > 0) {
+            return;
+        }
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < ORDERS_PER_CUSTOMER; i++) {
+            orders.add(order("Ana Torres", OrderStatus.CONFIRMED, i));
+            orders.add(order("Bruno Díaz", OrderStatus.PENDING, i));
+        }
+        orderRepository.saveAll(orders);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 20, 50})
+    void getAllOrdersUsesBoundedQueries(int pageSize) {
+        assertBoundedQueries(pageSize, () -> orderService.getAllOrders(page(pageSize)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 20, 50})
+    void getOrdersByCustomerUsesBoundedQueries(int pageSize) {
+        assertBoundedQueries(pageSize, () -> orderService.getOrdersByCustomer(
+                "ana", CustomerMatch.PREFIX, page(pageSize)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 20, 50})
+    void getOrdersByStatusUsesBoundedQueries(int pageSize) {
+        assertBoundedQueries(pageSize, () -> orderService.getOrdersByStatus(
+                OrderStatus.PENDING, page(pageSize)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 20, 50})
+    void getOrdersByCustomerAndStatusUsesBoundedQueries(int pageSize) {
+        assertBoundedQueries(pageSize, () -> orderService.getOrdersByCustomerAndStatus(
+                "bruno diaz", CustomerMatch.EXACT, OrderStatus.PENDING, page(pageSize)));
+    }
+
+    /**
+     * Segunda página, así la consulta de conteo no se puede omitir
+     */
+    private PageRequest page(int pageSize) {
+        return PageRequest.of(1, pageSize, Sort.by("date"));
+    }
+
+    private void assertBoundedQueries(int pageSize, Supplier<Page<OrderDTO>> query) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Page<OrderDTO> orders = query.get();
+
+        assertThat(orders.getContent()).hasSize(pageSize);
+        assertThat(orders.getContent()).allSatisfy(order -> assertThat(order.getItems()).hasSize(ITEMS_PER_ORDER));
+        assertThat(statistics.getPrepareStatementCount())
+                .as("sentencias para una página de %d órdenes", pageSize)
+                .isLessThanOrEqualTo(MAX_STATEMENTS);
+    }
+
+    private Order order(String customer, OrderStatus status, int index) {
+        List<OrderItem> items = new ArrayList<>();
+        Order order = Order.builder()
+                .customer(customer)
+                .date(LocalDateTime.of(2024, 1, 1, 12, 0).plusMinutes(index))
+                .status(status)
+                .total(new BigDecimal("40.00"))
+                .items(items)
+                .build();
+        for (long productId = 1; productId <= ITEMS_PER_ORDER; productId++) {
+            items.add(OrderItem.builder()
+                    .order(order)
+                    .productId(productId)
+                    .productName("Producto " + productId)
+                    .quantity(1)
+                    .unitPrice(BigDecimal.TEN)
+                    .subtotal(BigDecimal.TEN)
+                    .build());
+        }
+        return order;
+    }
+}
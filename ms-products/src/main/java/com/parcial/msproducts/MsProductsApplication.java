@@ -1,9 +1,14 @@
 package com.parcial.msproducts;
 
+import com.parcial.shared.threads.VirtualThreadDiagnosticsConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
+@Import(VirtualThreadDiagnosticsConfig.class)
 public class MsProductsApplication {
 
     public static void main(String[] args) {
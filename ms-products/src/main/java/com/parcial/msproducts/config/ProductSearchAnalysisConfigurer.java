@@ -0,0 +1,38 @@
+package com.parcial.msproducts.config;
+
+import org.hibernate.search.backend.lucene.analysis.LuceneAnalysisConfigurationContext;
+import org.hibernate.search.backend.lucene.analysis.LuceneAnalysisConfigurer;
+
+/**
+ * Analizadores del índice de búsqueda de productos.
+ * - texto: separa en palabras, pasa a minúsculas y quita acentos (búsqueda normal y con errores de tipeo)
+ * - autocompletado: además indexa los prefijos de cada palabra, para encontrar "tecl" en "Teclado"
+ * - autocompletado_busqueda: lo que escribe el usuario no se parte en prefijos, solo se normaliza
+ */
+public class ProductSearchAnalysisConfigurer implements LuceneAnalysisConfigurer {
+
+    public static final String TEXT = "texto";
+    public static final String AUTOCOMPLETE = "autocompletado";
+    public static final String AUTOCOMPLETE_QUERY = "autocompletado_busqueda";
+
+    @Override
+    public void configure(LuceneAnalysisConfigurationContext context) {
+        context.analyzer(TEXT).custom()
+                .tokenizer("standard")
+                .tokenFilter("lowercase")
+                .tokenFilter("asciiFolding");
+
+        context.analyzer(AUTOCOMPLETE).custom()
+                .tokenizer("standard")
+                .tokenFilter("lowercase")
+                .tokenFilter("asciiFolding")
+                .tokenFilter("edgeNGram")
+                        .param("minGramSize", "1")
+                        .param("maxGramSize", "20");
+
+        context.analyzer(AUTOCOMPLETE_QUERY).custom()
+                .tokenizer("standard")
+                .tokenFilter("lowercase")
+                .tokenFilter("asciiFolding");
+    }
+}
@@ -0,0 +1,31 @@
+package com.parcial.msproducts.controller;
+
+import com.parcial.msproducts.dto.CacheRegionStatsDTO;
+import com.parcial.msproducts.service.CacheStatisticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controlador REST para consultar el estado de la caché de segundo nivel.
+ */
+@RestController
+@RequestMapping("/api/cache")
+@RequiredArgsConstructor
+public class CacheStatsController {
+
+    private final CacheStatisticsService cacheStatisticsService;
+
+    /**
+     * Obtiene las estadísticas de cada región de la caché de segundo nivel
+     * @return Estadísticas por región con código de estado 200 (OK)
+     */
+    @GetMapping("/regions")
+    public ResponseEntity<List<CacheRegionStatsDTO>> getRegionStatistics() {
+        return ResponseEntity.ok(cacheStatisticsService.getRegionStatistics());
+    }
+}
@@ -1,16 +1,31 @@
 package com.parcial.msproducts.controller;
 
+import com.parcial.msproducts.dto.AvailabilityRequestDTO;
+import com.parcial.msproducts.dto.CursorPage;
+import com.parcial.msproducts.dto.ProductAvailabilityDTO;
+import com.parcial.msproducts.dto.ProductChangeFeedDTO;
 import com.parcial.msproducts.dto.ProductDTO;
+import com.parcial.msproducts.exception.BadRequestException;
+import com.parcial.msproducts.model.ExportFormat;
+import com.parcial.msproducts.service.ProductChangeService;
+import com.parcial.msproducts.service.ProductExportService;
 import com.parcial.msproducts.service.ProductService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
 /**
  * Controlador REST para gestionar las operaciones de productos.
  * Expone los endpoints para crear, leer, actualizar y eliminar productos.
@@ -20,7 +35,11 @@ import org.springframework.web.bind.annotation.*;
 @RequiredArgsConstructor
 public class ProductController {
 
+    private static final int MAX_SCROLL_SIZE = 100;
+
     private final ProductService productService;
+    private final ProductChangeService productChangeService;
+    private final ProductExportService productExportService;
 
     /**
      * Crea un nuevo producto
@@ -57,22 +76,66 @@ public class ProductController {
     }
 
     /**
-     * Busca productos por nombre o categoría
-     * @param name Nombre o parte del nombre (opcional)
+     * Recorre todos los productos por cursor, ordenados por nombre e id
+     * A diferencia del listado paginado no calcula el total ni usa offset, así que el costo
+     * de cada página no crece al avanzar
+     * @param cursor nextCursor de la respuesta anterior (omitir en la primera página)
+     * @param size Cantidad de productos por página (1 a 100)
+     * @return Página de productos con el cursor para continuar con código de estado 200 (OK)
+     */
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<ProductDTO>> scrollProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer size) {
+        if (size < 1 || size > MAX_SCROLL_SIZE) {
+            throw new BadRequestException("El tamaño de página debe estar entre 1 y " + MAX_SCROLL_SIZE);
+        }
+        return ResponseEntity.ok(productService.getProductsAfter(cursor, size));
+    }
+
+    /**
+     * Exporta los productos, ordenados por id
+     * Se escriben directo en la respuesta a medida que se leen de la base, sin paginar
      * @param category Categoría (opcional)
+     * @param format NDJSON (por defecto) o CSV
+     * @param response Respuesta donde se escribe la exportación
+     */
+    @GetMapping("/export")
+    public void exportProducts(
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            HttpServletResponse response) throws IOException {
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("products." + format.getExtension())
+                .build()
+                .toString());
+        productExportService.exportProducts(category, format, response.getOutputStream());
+    }
+
+    /**
+     * Busca productos por texto o categoría
+     * La búsqueda por texto usa el índice de texto completo: encuentra por nombre, descripción
+     * o categoría, acepta prefijos y errores de tipeo y ordena por relevancia
+     * @param q Texto a buscar (opcional)
+     * @param name Igual que q; se mantiene por compatibilidad (opcional)
+     * @param category Categoría exacta (opcional)
      * @param pageable Información de paginación
      * @return Página de productos que coinciden con los criterios de búsqueda
      */
     @GetMapping("/search")
     public ResponseEntity<Page<ProductDTO>> searchProducts(
+            @RequestParam(required = false) String q,
             @RequestParam(required = false) String name,
             @RequestParam(required = false) String category,
             @PageableDefault(size = 10) Pageable pageable) {
         
         Page<ProductDTO> products;
+        String text = q != null && !q.isEmpty() ? q : name;
         
-        if (name != null && !name.isEmpty()) {
-            products = productService.searchProductsByName(name, pageable);
+        if (text != null && !text.isEmpty()) {
+            products = productService.searchProducts(text, pageable);
         } else if (category != null && !category.isEmpty()) {
             products = productService.getProductsByCategory(category, pageable);
         } else {
@@ -120,4 +183,31 @@ public class ProductController {
         boolean hasStock = productService.checkStock(id, quantity);
         return ResponseEntity.ok(hasStock);
     }
-} 
\ No newline at end of file
+
+    /**
+     * Verifica en una sola llamada la disponibilidad de varios productos
+     * Devuelve nombre, precio y veredicto de stock de cada producto solicitado
+     * @param request Pares (producto, cantidad) a verificar (validados)
+     * @return Resultado de disponibilidad por producto con código de estado 200 (OK)
+     */
+    @PostMapping("/availability")
+    public ResponseEntity<List<ProductAvailabilityDTO>> checkAvailability(
+            @Valid @RequestBody AvailabilityRequestDTO request) {
+        List<ProductAvailabilityDTO> availability = productService.checkAvailability(request.getItems());
+        return ResponseEntity.ok(availability);
+    }
+
+    /**
+     * Obtiene los productos modificados o eliminados desde una versión del catálogo
+     * Lo consultan periódicamente los servicios que guardan productos en caché
+     * @param since Última versión procesada por el consumidor (-1 en la primera consulta)
+     * @param limit Cantidad máxima de cambios a devolver
+     * @return Productos modificados y nueva versión con código de estado 200 (OK)
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<ProductChangeFeedDTO> getChanges(
+            @RequestParam(defaultValue = "-1") Long since,
+            @RequestParam(defaultValue = "500") Integer limit) {
+        return ResponseEntity.ok(productChangeService.getChangesSince(since, limit));
+    }
+}
@@ -0,0 +1,78 @@
+package com.parcial.msproducts.controller;
+
+import com.parcial.msproducts.dto.BatchReservationRequestDTO;
+import com.parcial.msproducts.dto.ReservationRequestDTO;
+import com.parcial.msproducts.dto.ReservationResultDTO;
+import com.parcial.msproducts.dto.StockReservationDTO;
+import com.parcial.msproducts.service.StockReservationService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Controlador REST para gestionar las reservas de stock.
+ * Expone el protocolo reservar / confirmar / liberar.
+ */
+@RestController
+@RequestMapping("/api/reservations")
+@RequiredArgsConstructor
+public class StockReservationController {
+
+    private final StockReservationService reservationService;
+
+    /**
+     * Reserva stock para varios productos de forma atómica
+     * @param request Productos y cantidades a reservar (validados)
+     * @return La reserva creada con código de estado 201 (CREATED)
+     */
+    @PostMapping
+    public ResponseEntity<StockReservationDTO> reserve(@Valid @RequestBody ReservationRequestDTO request) {
+        StockReservationDTO reservation = reservationService.reserve(request);
+        return new ResponseEntity<>(reservation, HttpStatus.CREATED);
+    }
+
+    /**
+     * Reserva stock para varias órdenes en una sola llamada
+     * Cada reserva se acepta o se rechaza por separado; con referencia, reintentar el lote es seguro
+     * @param request Reservas del lote y si se confirman al crearlas (validado)
+     * @return Un resultado por reserva, en el mismo orden, con código de estado 200 (OK)
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<ReservationResultDTO>> reserveAll(@Valid @RequestBody BatchReservationRequestDTO request) {
+        return ResponseEntity.ok(reservationService.reserveAll(request.getReservations(), request.isCommit()));
+    }
+
+    /**
+     * Obtiene una reserva por su ID
+     * @param id ID de la reserva
+     * @return La reserva encontrada con código de estado 200 (OK)
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<StockReservationDTO> getReservation(@PathVariable Long id) {
+        return ResponseEntity.ok(reservationService.getReservation(id));
+    }
+
+    /**
+     * Confirma una reserva
+     * @param id ID de la reserva
+     * @return La reserva confirmada con código de estado 200 (OK)
+     */
+    @PostMapping("/{id}/commit")
+    public ResponseEntity<StockReservationDTO> commit(@PathVariable Long id) {
+        return ResponseEntity.ok(reservationService.commit(id));
+    }
+
+    /**
+     * Libera una reserva y devuelve su stock
+     * @param id ID de la reserva
+     * @return La reserva liberada con código de estado 200 (OK)
+     */
+    @PostMapping("/{id}/release")
+    public ResponseEntity<StockReservationDTO> release(@PathVariable Long id) {
+        return ResponseEntity.ok(reservationService.release(id));
+    }
+}
@@ -0,0 +1,24 @@
+package com.parcial.msproducts.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO para la consulta masiva de disponibilidad de productos
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AvailabilityRequestDTO {
+    
+    @NotEmpty(message = "La consulta debe tener al menos un ítem")
+    @Valid
+    private List<StockCheckItemDTO> items;
+}
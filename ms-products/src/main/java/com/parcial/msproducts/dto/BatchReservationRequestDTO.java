@@ -0,0 +1,29 @@
+package com.parcial.msproducts.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO para reservar stock de varias órdenes en una sola llamada.
+ * Cada reserva es atómica por separado; commit=true las deja confirmadas al crearlas
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchReservationRequestDTO {
+    
+    private boolean commit;
+    
+    @NotEmpty(message = "El lote debe tener al menos una reserva")
+    @Size(max = 500, message = "El lote no puede superar las 500 reservas")
+    @Valid
+    private List<ReservationRequestDTO> reservations;
+}
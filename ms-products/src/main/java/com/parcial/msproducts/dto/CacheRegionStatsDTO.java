@@ -0,0 +1,22 @@
+package com.parcial.msproducts.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con las estadísticas de una región de la caché de segundo nivel
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CacheRegionStatsDTO {
+    
+    private String region;
+    private long hitCount;
+    private long missCount;
+    private long putCount;
+    private long elementCountInMemory;
+}
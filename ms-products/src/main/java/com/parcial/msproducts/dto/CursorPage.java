@@ -0,0 +1,25 @@
+package com.parcial.msproducts.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página de resultados recorrida por cursor (paginación keyset).
+ * No incluye el total de elementos: para pedir la página siguiente se envía nextCursor,
+ * que es nulo cuando no quedan más resultados
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPage<T> {
+    
+    private List<T> content;
+    private Integer size;
+    private String nextCursor;
+    private boolean hasNext;
+}
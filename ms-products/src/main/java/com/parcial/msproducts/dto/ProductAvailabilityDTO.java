@@ -0,0 +1,27 @@
+package com.parcial.msproducts.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO con el resultado de disponibilidad de un producto.
+ * Incluye nombre, precio y el veredicto de stock para la cantidad solicitada.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductAvailabilityDTO {
+    
+    private Long productId;
+    private String name;
+    private BigDecimal price;
+    private Integer stock;
+    private Integer requestedQuantity;
+    private boolean found;
+    private boolean available;
+}
@@ -0,0 +1,25 @@
+package com.parcial.msproducts.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO con los productos modificados desde una versión dada del catálogo.
+ * Si reset es true el consumidor debe descartar todo lo que tenga en caché,
+ * porque su cursor es más antiguo que los cambios que se conservan.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductChangeFeedDTO {
+    
+    private Long version;
+    private List<Long> productIds;
+    private boolean reset;
+    private boolean hasMore;
+}
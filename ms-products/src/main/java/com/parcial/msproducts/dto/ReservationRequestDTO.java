@@ -0,0 +1,32 @@
+package com.parcial.msproducts.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO para solicitar una reserva de stock
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReservationRequestDTO {
+    
+    @NotEmpty(message = "La reserva debe tener al menos un ítem")
+    @Valid
+    private List<StockCheckItemDTO> items;
+    
+    /**
+     * Clave opcional del cliente (por ejemplo order-42); repetir la reserva con la misma clave
+     * devuelve la reserva existente en lugar de descontar stock otra vez
+     */
+    @Size(max = 64, message = "La referencia no puede superar los 64 caracteres")
+    private String reference;
+}
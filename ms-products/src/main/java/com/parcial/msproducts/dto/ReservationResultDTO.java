@@ -0,0 +1,33 @@
+package com.parcial.msproducts.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de una reserva del lote, en el mismo orden que la petición
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ReservationResultDTO {
+    
+    /**
+     * RESERVED: reserva creada o ya existente con esa referencia (ver reservation.status);
+     * REJECTED: producto inexistente, stock insuficiente o reserva ya liberada o expirada
+     */
+    public enum Outcome {
+        RESERVED,
+        REJECTED
+    }
+    
+    private String reference;
+    private Outcome outcome;
+    private StockReservationDTO reservation;
+    private String errorCode;
+    private String message;
+}
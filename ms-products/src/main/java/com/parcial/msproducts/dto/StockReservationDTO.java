@@ -0,0 +1,27 @@
+package com.parcial.msproducts.dto;
+
+import com.parcial.msproducts.model.ReservationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO para transferencia de datos de reservas de stock
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReservationDTO {
+    
+    private Long id;
+    private String reference;
+    private ReservationStatus status;
+    private LocalDateTime createdAt;
+    private LocalDateTime expiresAt;
+    private List<StockCheckItemDTO> items;
+}
@@ -0,0 +1,16 @@
+package com.parcial.msproducts.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class InvalidReservationStateException extends RuntimeException {
+    
+    public InvalidReservationStateException(String message) {
+        super(message);
+    }
+    
+    public InvalidReservationStateException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,16 @@
+package com.parcial.msproducts.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class StockUnavailableException extends RuntimeException {
+    
+    public StockUnavailableException(String message) {
+        super(message);
+    }
+    
+    public StockUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
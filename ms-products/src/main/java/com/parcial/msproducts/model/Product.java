@@ -5,16 +5,30 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
+import com.parcial.msproducts.config.ProductSearchAnalysisConfigurer;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.FullTextField;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.Indexed;
 
 import java.math.BigDecimal;
 
 /**
  * Entidad que representa un producto en el sistema.
  * Implementa el patrón Builder mediante la anotación @Builder de Lombok.
+ * Se guarda en la caché de segundo nivel de Hibernate (región "products").
+ * Nombre, descripción y categoría se indexan en el índice de texto completo "products"
+ * (Hibernate Search), que se actualiza solo al confirmar cada transacción.
  */
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_name_id", columnList = "name, id"),
+        @Index(name = "idx_products_category", columnList = "category")
+})
+@Indexed(index = "products")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "products")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -32,12 +46,16 @@ public class Product {
      * Nombre del producto
      */
     @NotBlank(message = "El nombre del producto es obligatorio")
+    @FullTextField(analyzer = ProductSearchAnalysisConfigurer.TEXT)
+    @FullTextField(name = "name_autocomplete", analyzer = ProductSearchAnalysisConfigurer.AUTOCOMPLETE,
+            searchAnalyzer = ProductSearchAnalysisConfigurer.AUTOCOMPLETE_QUERY)
     private String name;
 
     /**
      * Descripción detallada del producto
      */
     @Column(length = 1000)
+    @FullTextField(analyzer = ProductSearchAnalysisConfigurer.TEXT)
     private String description;
 
     /**
@@ -58,5 +76,6 @@ public class Product {
      * Categoría a la que pertenece el producto
      */
     @NotBlank(message = "La categoría es obligatoria")
+    @FullTextField(analyzer = ProductSearchAnalysisConfigurer.TEXT)
     private String category;
 } 
\ No newline at end of file
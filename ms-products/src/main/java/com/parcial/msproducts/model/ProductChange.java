@@ -0,0 +1,45 @@
+package com.parcial.msproducts.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad que registra un cambio de catálogo (actualización o eliminación de un producto).
+ * El ID autoincremental funciona como versión para que los consumidores lean el
+ * feed de cambios a partir de su último cursor.
+ */
+@Entity
+@Table(name = "product_changes", indexes = {
+        @Index(name = "idx_product_changes_changed_at", columnList = "changed_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductChange {
+
+    /**
+     * Versión del cambio, creciente
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Producto modificado
+     */
+    @NotNull(message = "El ID del producto es obligatorio")
+    private Long productId;
+
+    /**
+     * Fecha y hora del cambio
+     */
+    @NotNull(message = "La fecha del cambio es obligatoria")
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,8 @@
+package com.parcial.msproducts.model;
+
+public enum ReservationStatus {
+    RESERVED,
+    COMMITTED,
+    RELEASED,
+    EXPIRED
+}
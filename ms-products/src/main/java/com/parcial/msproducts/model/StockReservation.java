@@ -0,0 +1,67 @@
+package com.parcial.msproducts.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entidad que representa una reserva temporal de stock.
+ * El stock se descuenta al reservar y se devuelve si la reserva se libera o expira.
+ */
+@Entity
+@Table(name = "stock_reservations", indexes = {
+        @Index(name = "idx_stock_reservations_status_expires_at", columnList = "status, expires_at"),
+        @Index(name = "uk_stock_reservations_reference", columnList = "reference", unique = true)
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReservation {
+
+    /**
+     * Identificador único de la reserva
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Clave del cliente que pidió la reserva (opcional, única); permite reintentar sin reservar dos veces
+     */
+    @Column(length = 64)
+    private String reference;
+
+    /**
+     * Estado actual de la reserva (RESERVED, COMMITTED, RELEASED, EXPIRED)
+     */
+    @NotNull(message = "El estado es obligatorio")
+    @Enumerated(EnumType.STRING)
+    private ReservationStatus status;
+
+    /**
+     * Fecha y hora de creación de la reserva
+     */
+    @NotNull(message = "La fecha de creación es obligatoria")
+    private LocalDateTime createdAt;
+
+    /**
+     * Fecha y hora a partir de la cual la reserva se considera vencida
+     */
+    @NotNull(message = "La fecha de expiración es obligatoria")
+    private LocalDateTime expiresAt;
+
+    /**
+     * Productos y cantidades reservadas
+     */
+    @OneToMany(mappedBy = "reservation", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Builder.Default
+    private List<StockReservationItem> items = new ArrayList<>();
+}
@@ -0,0 +1,53 @@
+package com.parcial.msproducts.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Entidad que representa un producto dentro de una reserva de stock.
+ */
+@Entity
+@Table(name = "stock_reservation_items", indexes = {
+        @Index(name = "idx_stock_reservation_items_reservation_id", columnList = "reservation_id"),
+        @Index(name = "idx_stock_reservation_items_ledger_pending", columnList = "ledger_pending, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReservationItem {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "reservation_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private StockReservation reservation;
+
+    @NotNull(message = "El ID del producto es obligatorio")
+    private Long productId;
+
+    @NotNull(message = "La cantidad es obligatoria")
+    @Positive(message = "La cantidad debe ser mayor que cero")
+    private Integer quantity;
+
+    /**
+     * Indica si el stock de este ítem se descontó en el ledger en memoria
+     */
+    private boolean ledgerManaged;
+
+    /**
+     * Indica si el descuento del ledger todavía no se aplicó a la tabla products
+     */
+    private boolean ledgerPending;
+}
@@ -0,0 +1,34 @@
+package com.parcial.msproducts.repository;
+
+import com.parcial.msproducts.model.ProductChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ProductChangeRepository extends JpaRepository<ProductChange, Long> {
+    
+    List<ProductChange> findByIdGreaterThanOrderByIdAsc(Long version, Pageable pageable);
+    
+    /**
+     * Productos de los cambios hasta la versión dada registrados desde un momento; usa idx_product_changes_changed_at
+     */
+    @Query("SELECT DISTINCT c.productId FROM ProductChange c WHERE c.id <= :version AND c.changedAt >= :since")
+    List<Long> findProductIdsChangedUpTo(@Param("version") Long version, @Param("since") LocalDateTime since);
+    
+    @Query("SELECT COALESCE(MAX(c.id), 0) FROM ProductChange c")
+    Long findLatestVersion();
+    
+    @Query("SELECT COALESCE(MIN(c.id), 0) FROM ProductChange c")
+    Long findOldestVersion();
+    
+    @Modifying
+    @Query("DELETE FROM ProductChange c WHERE c.changedAt < :before")
+    int deleteOlderThan(@Param("before") LocalDateTime before);
+}
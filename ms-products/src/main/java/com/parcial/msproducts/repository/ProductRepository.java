@@ -3,13 +3,83 @@ package com.parcial.msproducts.repository;
 import com.parcial.msproducts.model.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
+    
+    String EXPORT_FETCH_SIZE = "500";
+    
+    /**
+     * Sin upper() sobre la columna para que use idx_products_category; no distingue
+     * mayúsculas por la collation de la columna (utf8mb4_0900_ai_ci)
+     * Devuelve solo IDs: la caché de consultas guarda las filas del resultado, y con entidades
+     * guardaría también el stock, que cambia en cada reserva sin invalidar esta región
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "product-queries")
+    })
+    @Query(value = "SELECT p.id FROM Product p WHERE p.category = :category",
+            countQuery = "SELECT COUNT(p) FROM Product p WHERE p.category = :category")
+    Page<Long> findIdsByCategory(@Param("category") String category, Pageable pageable);
+    
+    @Query("SELECT p FROM Product p ORDER BY p.name, p.id")
+    List<Product> findFirstByNameOrder(Pageable pageable);
+    
+    /**
+     * Productos posteriores a (name, id) en el orden (name, id), sin offset ni conteo
+     * Se apoya en el índice compuesto idx_products_name_id
+     */
+    @Query("SELECT p FROM Product p WHERE p.name >= :name AND (p.name > :name OR p.id > :id)"
+            + " ORDER BY p.name, p.id")
+    List<Product> findAfterByNameOrder(@Param("name") String name, @Param("id") Long id, Pageable pageable);
+    
+    /**
+     * Recorrido de solo avance para la exportación, de a EXPORT_FETCH_SIZE filas por viaje
+     * (en MySQL requiere useCursorFetch=true); no lee ni llena la caché de segundo nivel
+     * Debe consumirse dentro de una transacción
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("SELECT p FROM Product p ORDER BY p.id")
+    Stream<Product> streamAll();
+    
+    /**
+     * Como {@link #streamAll()} pero de una categoría; se apoya en idx_products_category
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("SELECT p FROM Product p WHERE p.category = :category ORDER BY p.id")
+    Stream<Product> streamByCategory(@Param("category") String category);
     
-    Page<Product> findByNameContainingIgnoreCase(String name, Pageable pageable);
+    /**
+     * Lee el producto con la fila bloqueada (select ... for update), sin pasar por la caché de segundo nivel
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id = :id")
+    Optional<Product> findByIdForUpdate(@Param("id") Long id);
     
-    Page<Product> findByCategoryIgnoreCase(String category, Pageable pageable);
-} 
\ No newline at end of file
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids")
+    List<Product> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,21 @@
+package com.parcial.msproducts.repository;
+
+import com.parcial.msproducts.model.Product;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ProductRepositoryCustom {
+    
+    List<Product> findAllByIdUsingCache(Collection<Long> ids);
+    
+    Page<Product> searchFullText(String text, Pageable pageable);
+    
+    int decrementStock(Long id, Integer quantity);
+    
+    int incrementStock(Long id, Integer quantity);
+    
+    int subtractStock(Long id, Integer quantity);
+}
@@ -0,0 +1,127 @@
+package com.parcial.msproducts.repository;
+
+import com.parcial.msproducts.model.Product;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.search.engine.search.query.SearchResult;
+import org.hibernate.search.mapper.orm.Search;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Consultas de productos que necesitan la API nativa de Hibernate o Hibernate Search.
+ */
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    /**
+     * Espacio de consulta de las actualizaciones de stock; no coincide con ninguna tabla mapeada,
+     * así que Hibernate no vacía la región "products" ni invalida la caché de consultas
+     */
+    private static final String STOCK_QUERY_SPACE = "product_stock";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Carga varios productos por ID revisando primero la caché de segundo nivel
+     * A diferencia de findAllById (un IN sobre la base), solo consulta los que no están en caché
+     * @param ids IDs a cargar
+     * @return Los productos encontrados, en el orden de los IDs; los inexistentes se omiten
+     */
+    @Override
+    public List<Product> findAllByIdUsingCache(Collection<Long> ids) {
+        List<Product> products = new ArrayList<>(entityManager.unwrap(Session.class)
+                .byMultipleIds(Product.class)
+                .multiLoad(new ArrayList<>(ids)));
+        products.removeIf(Objects::isNull);
+        return products;
+    }
+
+    /**
+     * Busca productos en el índice de texto completo por nombre, descripción y categoría
+     * Acepta prefijos ("tecl" encuentra "Teclado") y un error de tipeo por palabra o prefijo;
+     * el nombre pesa más que la categoría y la descripción. Ordena por relevancia
+     * Los productos se cargan por ID desde el contexto de persistencia o la caché de segundo nivel
+     * @param text Texto ingresado por el usuario
+     * @param pageable Información de paginación (el ordenamiento se ignora)
+     * @return Página de productos ordenada por relevancia
+     */
+    @Override
+    public Page<Product> searchFullText(String text, Pageable pageable) {
+        SearchResult<Product> result = Search.session(entityManager)
+                .search(Product.class)
+                .where(f -> f.bool()
+                        .should(f.match().field("name_autocomplete").matching(text).boost(3f))
+                        .should(f.match().field("name_autocomplete").matching(text).fuzzy(1, 1))
+                        .should(f.match().field("name").boost(2f).field("category").field("description")
+                                .matching(text).fuzzy(1, 1)))
+                .fetch((int) pageable.getOffset(), pageable.getPageSize());
+        return new PageImpl<>(result.hits(), pageable, result.total().hitCount());
+    }
+
+    /**
+     * Descuenta stock de forma atómica solo si hay cantidad suficiente
+     * @return 1 si se descontó, 0 si el producto no existe o no tiene stock suficiente
+     */
+    @Override
+    public int decrementStock(Long id, Integer quantity) {
+        return updateStock("update products set stock = stock - :quantity where id = :id and stock >= :quantity",
+                id, quantity);
+    }
+
+    /**
+     * Devuelve stock previamente descontado
+     * @return 1 si se actualizó, 0 si el producto no existe
+     */
+    @Override
+    public int incrementStock(Long id, Integer quantity) {
+        return updateStock("update products set stock = stock + :quantity where id = :id", id, quantity);
+    }
+
+    /**
+     * Resta stock sin condición; lo usa el ledger para aplicar descuentos ya validados en memoria
+     */
+    @Override
+    public int subtractStock(Long id, Integer quantity) {
+        return updateStock("update products set stock = stock - :quantity where id = :id", id, quantity);
+    }
+
+    /**
+     * UPDATE de stock que solo saca de la caché de segundo nivel al producto afectado
+     * (antes de ejecutarlo y al terminar la transacción, como hace Hibernate con toda la región
+     * en un UPDATE masivo); el resto de los productos y los resultados de consultas quedan en caché
+     */
+    private int updateStock(String sql, Long id, Integer quantity) {
+        evictAfterCompletion(id);
+        return entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(STOCK_QUERY_SPACE)
+                .setParameter("id", id)
+                .setParameter("quantity", quantity)
+                .executeUpdate();
+    }
+
+    private void evictAfterCompletion(Long id) {
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        cache.evict(Product.class, id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.evict(Product.class, id);
+                }
+            });
+        }
+    }
+}
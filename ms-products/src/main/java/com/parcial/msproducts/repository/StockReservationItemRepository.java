@@ -0,0 +1,34 @@
+package com.parcial.msproducts.repository;
+
+import com.parcial.msproducts.model.StockReservationItem;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StockReservationItemRepository extends JpaRepository<StockReservationItem, Long> {
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM StockReservationItem i WHERE i.ledgerPending = true ORDER BY i.id")
+    List<StockReservationItem> findLedgerPendingForUpdate(Pageable pageable);
+    
+    @Modifying
+    @Query("UPDATE StockReservationItem i SET i.ledgerPending = false WHERE i.id IN :ids")
+    int markLedgerFlushed(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Marca el ítem como aplicado solo si todavía estaba pendiente
+     * @return 1 si el descuento nunca llegó a la tabla products, 0 si ya se había aplicado
+     */
+    @Modifying
+    @Query("UPDATE StockReservationItem i SET i.ledgerPending = false WHERE i.id = :id AND i.ledgerPending = true")
+    int clearLedgerPending(@Param("id") Long id);
+}
@@ -0,0 +1,38 @@
+package com.parcial.msproducts.repository;
+
+import com.parcial.msproducts.model.ReservationStatus;
+import com.parcial.msproducts.model.StockReservation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+    
+    Optional<StockReservation> findByReference(String reference);
+    
+    @Query("SELECT r.id FROM StockReservation r WHERE r.status = :status AND r.expiresAt < :now ORDER BY r.expiresAt")
+    List<Long> findIdsByStatusAndExpiresAtBefore(
+            @Param("status") ReservationStatus status,
+            @Param("now") LocalDateTime now,
+            Pageable pageable);
+    
+    /**
+     * Cambia el estado de la reserva solo si sigue en el estado esperado
+     * Limpia el contexto de persistencia para que las lecturas siguientes vean el estado nuevo
+     * @return 1 si la transición se aplicó, 0 si otro proceso la cambió antes
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE StockReservation r SET r.status = :target WHERE r.id = :id AND r.status = :expected")
+    int transition(
+            @Param("id") Long id,
+            @Param("expected") ReservationStatus expected,
+            @Param("target") ReservationStatus target);
+}
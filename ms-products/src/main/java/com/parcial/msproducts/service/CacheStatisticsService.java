@@ -0,0 +1,10 @@
+package com.parcial.msproducts.service;
+
+import com.parcial.msproducts.dto.CacheRegionStatsDTO;
+
+import java.util.List;
+
+public interface CacheStatisticsService {
+    
+    List<CacheRegionStatsDTO> getRegionStatistics();
+}
@@ -0,0 +1,12 @@
+package com.parcial.msproducts.service;
+
+import com.parcial.msproducts.dto.ProductChangeFeedDTO;
+
+public interface ProductChangeService {
+    
+    void recordChange(Long productId);
+    
+    ProductChangeFeedDTO getChangesSince(Long version, int limit);
+    
+    int purgeOldChanges();
+}
@@ -0,0 +1,11 @@
+package com.parcial.msproducts.service;
+
+import com.parcial.msproducts.model.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ProductExportService {
+    
+    void exportProducts(String category, ExportFormat format, OutputStream output) throws IOException;
+}
@@ -1,9 +1,14 @@
 package com.parcial.msproducts.service;
 
+import com.parcial.msproducts.dto.CursorPage;
+import com.parcial.msproducts.dto.ProductAvailabilityDTO;
 import com.parcial.msproducts.dto.ProductDTO;
+import com.parcial.msproducts.dto.StockCheckItemDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.List;
+
 public interface ProductService {
     
     ProductDTO createProduct(ProductDTO productDTO);
@@ -12,7 +17,9 @@ public interface ProductService {
     
     Page<ProductDTO> getAllProducts(Pageable pageable);
     
-    Page<ProductDTO> searchProductsByName(String name, Pageable pageable);
+    CursorPage<ProductDTO> getProductsAfter(String cursor, int size);
+    
+    Page<ProductDTO> searchProducts(String text, Pageable pageable);
     
     Page<ProductDTO> getProductsByCategory(String category, Pageable pageable);
     
@@ -21,4 +28,6 @@ public interface ProductService {
     void deleteProduct(Long id);
     
     boolean checkStock(Long productId, Integer quantity);
+    
+    List<ProductAvailabilityDTO> checkAvailability(List<StockCheckItemDTO> items);
 } 
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.parcial.msproducts.service;
+
+import java.util.OptionalInt;
+
+public interface StockLedger {
+    
+    boolean isTracked(Long productId);
+    
+    OptionalInt availableStock(Long productId);
+    
+    boolean tryReserve(Long productId, int quantity);
+    
+    void restore(Long productId, int quantity);
+    
+    void adjust(Long productId, int delta);
+    
+    void untrack(Long productId);
+    
+    void flush();
+}
@@ -0,0 +1,15 @@
+package com.parcial.msproducts.service;
+
+/**
+ * Fuente del stock disponible que consulta checkStock.
+ * Por defecto se lee de la base local; en pruebas se puede reemplazar por una
+ * simulación con demoras y fallas para ejercitar el circuit breaker.
+ */
+public interface StockProvider {
+    
+    /**
+     * @throws com.parcial.msproducts.exception.ResourceNotFoundException si el producto no existe
+     * @throws com.parcial.msproducts.exception.StockUnavailableException si no se pudo consultar
+     */
+    int availableStock(Long productId);
+}
@@ -0,0 +1,24 @@
+package com.parcial.msproducts.service;
+
+import com.parcial.msproducts.dto.ReservationRequestDTO;
+import com.parcial.msproducts.dto.ReservationResultDTO;
+import com.parcial.msproducts.dto.StockReservationDTO;
+
+import java.util.List;
+
+public interface StockReservationService {
+    
+    StockReservationDTO reserve(ReservationRequestDTO request);
+    
+    List<ReservationResultDTO> reserveAll(List<ReservationRequestDTO> requests, boolean commit);
+    
+    StockReservationDTO getReservation(Long id);
+    
+    StockReservationDTO commit(Long id);
+    
+    StockReservationDTO release(Long id);
+    
+    List<Long> findExpiredReservationIds(int limit);
+    
+    void expire(Long id);
+}
@@ -0,0 +1,52 @@
+package com.parcial.msproducts.service.impl;
+
+import com.parcial.msproducts.dto.CacheRegionStatsDTO;
+import com.parcial.msproducts.service.CacheStatisticsService;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Implementación del servicio de estadísticas de la caché de segundo nivel.
+ * Requiere hibernate.generate_statistics; si está desactivado los contadores quedan en cero.
+ */
+@Service
+@RequiredArgsConstructor
+public class CacheStatisticsServiceImpl implements CacheStatisticsService {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Obtiene aciertos, fallos, inserciones y tamaño de cada región de caché
+     * @return Estadísticas por región (entidades, consultas y timestamps)
+     */
+    @Override
+    public List<CacheRegionStatsDTO> getRegionStatistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .map(region -> mapToDTO(region, statistics.getCacheRegionStatistics(region)))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private CacheRegionStatsDTO mapToDTO(String region, CacheRegionStatistics regionStatistics) {
+        if (regionStatistics == null) {
+            return null;
+        }
+        return CacheRegionStatsDTO.builder()
+                .region(region)
+                .hitCount(regionStatistics.getHitCount())
+                .missCount(regionStatistics.getMissCount())
+                .putCount(regionStatistics.getPutCount())
+                .elementCountInMemory(regionStatistics.getElementCountInMemory())
+                .build();
+    }
+}
@@ -0,0 +1,28 @@
+package com.parcial.msproducts.service.impl;
+
+import com.parcial.msproducts.exception.ResourceNotFoundException;
+import com.parcial.msproducts.repository.ProductRepository;
+import com.parcial.msproducts.service.StockLedger;
+import com.parcial.msproducts.service.StockProvider;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stock leído directamente de este servicio: el ledger para los productos de alta
+ * demanda y la tabla products (o la caché de segundo nivel) para el resto, sin demoras
+ */
+@Component
+@RequiredArgsConstructor
+public class LocalStockProvider implements StockProvider {
+
+    private final ProductRepository productRepository;
+    private final StockLedger stockLedger;
+
+    @Override
+    public int availableStock(Long productId) {
+        return stockLedger.availableStock(productId)
+                .orElseGet(() -> productRepository.findById(productId)
+                        .orElseThrow(() -> new ResourceNotFoundException("Producto no encontrado con id: " + productId))
+                        .getStock());
+    }
+}
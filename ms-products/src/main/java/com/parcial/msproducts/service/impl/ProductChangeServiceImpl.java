@@ -0,0 +1,105 @@
+package com.parcial.msproducts.service.impl;
+
+import com.parcial.msproducts.dto.ProductChangeFeedDTO;
+import com.parcial.msproducts.model.ProductChange;
+import com.parcial.msproducts.repository.ProductChangeRepository;
+import com.parcial.msproducts.service.ProductChangeService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Implementación del feed de cambios del catálogo.
+ * Los servicios que guardan productos en caché lo consultan con su último
+ * cursor para invalidar solo lo que cambió.
+ * El cursor es el ID del cambio, que se asigna al insertar pero se ve recién al confirmar:
+ * si dos transacciones confirman en otro orden, el cursor puede pasar de largo un ID menor.
+ * Por eso cada respuesta repite además los productos cambiados dentro de
+ * products.changes.commit-lag; un cambio que tarda más en confirmarse solo se refleja
+ * cuando la entrada de la caché caduca (products.cache.max-staleness en ms-orders).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductChangeServiceImpl implements ProductChangeService {
+
+    private final ProductChangeRepository changeRepository;
+
+    @Value("${products.changes.retention:P1D}")
+    private Duration retention;
+
+    @Value("${products.changes.commit-lag:PT5S}")
+    private Duration commitLag;
+
+    /**
+     * Registra que un producto cambió; se guarda en la misma transacción que el cambio
+     * @param productId ID del producto modificado o eliminado
+     */
+    @Override
+    @Transactional
+    public void recordChange(Long productId) {
+        changeRepository.save(ProductChange.builder()
+                .productId(productId)
+                .changedAt(LocalDateTime.now())
+                .build());
+    }
+
+    /**
+     * Obtiene los productos modificados después de una versión
+     * Un cursor negativo (primera consulta) o más antiguo que los cambios conservados
+     * devuelve reset = true y la versión actual. Se suman los productos de cambios ya
+     * anteriores al cursor pero más nuevos que commit-lag, que pudieron confirmarse tarde
+     * @param version Última versión que el consumidor ya procesó
+     * @param limit Cantidad máxima de cambios a devolver
+     * @return Los productos modificados y la nueva versión del cursor
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ProductChangeFeedDTO getChangesSince(Long version, int limit) {
+        Long oldestVersion = changeRepository.findOldestVersion();
+        if (version < 0 || (oldestVersion > 0 && version < oldestVersion - 1)) {
+            return ProductChangeFeedDTO.builder()
+                    .version(changeRepository.findLatestVersion())
+                    .productIds(List.of())
+                    .reset(true)
+                    .build();
+        }
+        
+        List<ProductChange> changes = changeRepository.findByIdGreaterThanOrderByIdAsc(
+                version, PageRequest.of(0, limit));
+        Set<Long> productIds = new LinkedHashSet<>(changeRepository.findProductIdsChangedUpTo(
+                version, LocalDateTime.now().minus(commitLag)));
+        changes.forEach(change -> productIds.add(change.getProductId()));
+        
+        return ProductChangeFeedDTO.builder()
+                .version(changes.isEmpty() ? version : changes.get(changes.size() - 1).getId())
+                .productIds(List.copyOf(productIds))
+                .hasMore(changes.size() == limit)
+                .build();
+    }
+
+    /**
+     * Elimina los cambios más antiguos que el período de retención
+     * @return Cantidad de cambios eliminados
+     */
+    @Override
+    @Transactional
+    @Scheduled(fixedDelayString = "${products.changes.purge-interval:PT1H}")
+    public int purgeOldChanges() {
+        int deleted = changeRepository.deleteOlderThan(LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            log.info("Feed de cambios: {} registros antiguos eliminados", deleted);
+        }
+        return deleted;
+    }
+}
@@ -0,0 +1,41 @@
+package com.parcial.msproducts.service.impl;
+
+import com.parcial.msproducts.exception.BadRequestException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Posición del último producto devuelto en un recorrido por cursor: (nombre, id).
+ * Se envía al cliente como un token opaco en Base64 URL-safe; el id va primero
+ * porque el nombre puede contener el separador
+ */
+@Getter
+@AllArgsConstructor
+class ProductCursor {
+
+    private static final char SEPARATOR = '|';
+
+    private final String name;
+    private final Long id;
+
+    static ProductCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new BadRequestException("Cursor no válido");
+            }
+            return new ProductCursor(raw.substring(separator + 1), Long.valueOf(raw.substring(0, separator)));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Cursor no válido", e);
+        }
+    }
+
+    String encode() {
+        String raw = id + String.valueOf(SEPARATOR) + name;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
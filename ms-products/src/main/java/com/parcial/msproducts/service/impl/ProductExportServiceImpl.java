@@ -0,0 +1,150 @@
+package com.parcial.msproducts.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.parcial.msproducts.dto.ProductDTO;
+import com.parcial.msproducts.model.ExportFormat;
+import com.parcial.msproducts.model.Product;
+import com.parcial.msproducts.repository.ProductRepository;
+import com.parcial.msproducts.service.ProductExportService;
+import com.parcial.msproducts.service.StockLedger;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exportación de productos en NDJSON o CSV, ordenados por id.
+ * Recorre los productos con un Stream de solo avance y limpia el contexto de persistencia
+ * cada ProductRepository.EXPORT_FETCH_SIZE filas, así la memoria usada no depende de cuántos
+ * productos se exporten. El stock es el disponible, igual que en la API (incluye el ledger).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductExportServiceImpl implements ProductExportService {
+
+    private static final int WINDOW_SIZE = Integer.parseInt(ProductRepository.EXPORT_FETCH_SIZE);
+
+    private static final String CSV_HEADER = "id,name,description,price,stock,category";
+
+    private final ProductRepository productRepository;
+    private final StockLedger stockLedger;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Escribe en output los productos de la categoría indicada, o todos si es null
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportProducts(String category, ExportFormat format, OutputStream output) throws IOException {
+        long exported = 0;
+        try (Stream<Product> products = category == null
+                ? productRepository.streamAll()
+                : productRepository.streamByCategory(category);
+             ProductSink sink = format == ExportFormat.CSV ? new CsvSink(output) : new NdjsonSink(output)) {
+            Iterator<Product> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                sink.write(mapToDTO(iterator.next()));
+                if (++exported % WINDOW_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        log.info("Exportación de productos terminada: {} productos", exported);
+    }
+
+    private ProductDTO mapToDTO(Product product) {
+        return ProductDTO.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .description(product.getDescription())
+                .price(product.getPrice())
+                .stock(stockLedger.availableStock(product.getId()).orElse(product.getStock()))
+                .category(product.getCategory())
+                .build();
+    }
+
+    private interface ProductSink extends AutoCloseable {
+
+        void write(ProductDTO product) throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    private final class NdjsonSink implements ProductSink {
+
+        private final JsonGenerator generator;
+        private final ObjectWriter writer;
+
+        private NdjsonSink(OutputStream output) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(output);
+            this.generator.setRootValueSeparator(null);
+            this.writer = objectMapper.writerFor(ProductDTO.class)
+                    .without(SerializationFeature.INDENT_OUTPUT)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        }
+
+        @Override
+        public void write(ProductDTO product) throws IOException {
+            writer.writeValue(generator, product);
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+
+    private static final class CsvSink implements ProductSink {
+
+        private final Writer writer;
+
+        private CsvSink(OutputStream output) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            this.writer.write(CSV_HEADER);
+            this.writer.write('\n');
+        }
+
+        @Override
+        public void write(ProductDTO product) throws IOException {
+            writer.write(String.join(",", product.getId().toString(), csv(product.getName()),
+                    csv(product.getDescription()), product.getPrice().toPlainString(),
+                    product.getStock().toString(), csv(product.getCategory())));
+            writer.write('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+
+        /**
+         * Encierra el valor entre comillas si tiene coma, comillas o saltos de línea (RFC 4180)
+         */
+        private static String csv(String value) {
+            if (value == null) {
+                return "";
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.parcial.msproducts.service.impl;
+
+import com.parcial.msproducts.model.Product;
+import com.parcial.msproducts.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.search.mapper.orm.Search;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Arma el índice de búsqueda de productos cuando está vacío pero la tabla no.
+ * Cubre el primer arranque con datos existentes y el borrado del directorio del índice.
+ * Después del arranque el índice se mantiene solo con cada alta, modificación y baja.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductSearchIndexer {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ProductRepository productRepository;
+
+    @Value("${products.search.reindex-on-startup:true}")
+    private boolean reindexOnStartup;
+
+    @Value("${products.search.indexing-threads:2}")
+    private int indexingThreads;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void indexIfEmpty() {
+        if (!reindexOnStartup) {
+            return;
+        }
+        long products = productRepository.count();
+        long indexed;
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            indexed = Search.session(entityManager).search(Product.class)
+                    .where(f -> f.matchAll())
+                    .fetchTotalHitCount();
+        } finally {
+            entityManager.close();
+        }
+        if (products == 0 || indexed > 0) {
+            return;
+        }
+
+        log.info("Índice de búsqueda vacío, indexando {} productos", products);
+        long start = System.nanoTime();
+        Search.mapping(entityManagerFactory).scope(Product.class).massIndexer()
+                .threadsToLoadObjects(indexingThreads)
+                .start()
+                .whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        log.error("Falló la indexación de productos: {}", error.getMessage());
+                    } else {
+                        log.info("Indexación de productos terminada en {} ms", (System.nanoTime() - start) / 1_000_000);
+                    }
+                });
+    }
+}
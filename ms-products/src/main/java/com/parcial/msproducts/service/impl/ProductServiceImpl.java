@@ -1,29 +1,50 @@
 package com.parcial.msproducts.service.impl;
 
+import com.parcial.msproducts.dto.CursorPage;
+import com.parcial.msproducts.dto.ProductAvailabilityDTO;
 import com.parcial.msproducts.dto.ProductDTO;
+import com.parcial.msproducts.dto.StockCheckItemDTO;
 import com.parcial.msproducts.exception.ResourceNotFoundException;
 import com.parcial.msproducts.model.Product;
 import com.parcial.msproducts.repository.ProductRepository;
+import com.parcial.msproducts.service.ProductChangeService;
 import com.parcial.msproducts.service.ProductService;
+import com.parcial.msproducts.service.StockLedger;
+import com.parcial.msproducts.service.StockProvider;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.tracing.annotation.NewSpan;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 /**
  * Implementación del servicio de productos.
  * Contiene la lógica de negocio para gestionar productos.
  * Implementa el patrón Circuit Breaker para la verificación de stock.
  */
 @Service
+@Timed("products.service")
 @RequiredArgsConstructor
 @Slf4j
 public class ProductServiceImpl implements ProductService {
 
     private final ProductRepository productRepository;
+    private final StockLedger stockLedger;
+    private final ProductChangeService productChangeService;
+    private final StockProvider stockProvider;
+    private final StockRejectionMetrics rejectionMetrics;
 
     /**
      * Crea un nuevo producto en el sistema
@@ -64,19 +85,54 @@ public class ProductServiceImpl implements ProductService {
     }
 
     /**
-     * Busca productos por nombre (búsqueda parcial)
-     * @param name Nombre o parte del nombre a buscar
+     * Obtiene los productos ordenados por (nombre, id) a partir de un cursor (paginación keyset)
+     * Pide un elemento de más para saber si hay página siguiente, sin consulta de conteo
+     * @param cursor Token devuelto en la página anterior (nulo para la primera página)
+     * @param size Cantidad de productos por página
+     * @return Página de productos con el cursor para continuar
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ProductDTO> getProductsAfter(String cursor, int size) {
+        PageRequest limit = PageRequest.ofSize(size + 1);
+        List<Product> products;
+        if (cursor == null || cursor.isEmpty()) {
+            products = productRepository.findFirstByNameOrder(limit);
+        } else {
+            ProductCursor after = ProductCursor.decode(cursor);
+            products = productRepository.findAfterByNameOrder(after.getName(), after.getId(), limit);
+        }
+        
+        boolean hasNext = products.size() > size;
+        if (hasNext) {
+            products = products.subList(0, size);
+        }
+        String nextCursor = null;
+        if (hasNext) {
+            Product last = products.get(products.size() - 1);
+            nextCursor = new ProductCursor(last.getName(), last.getId()).encode();
+        }
+        
+        List<ProductDTO> content = products.stream().map(this::mapToDTO).collect(Collectors.toList());
+        return new CursorPage<>(content, size, nextCursor, hasNext);
+    }
+
+    /**
+     * Busca productos por texto en el índice de texto completo (nombre, descripción y categoría)
+     * Acepta prefijos y errores de tipeo; los resultados vienen ordenados por relevancia
+     * @param text Texto a buscar
      * @param pageable Información de paginación
      * @return Página de productos que coinciden con la búsqueda
      */
     @Override
     @Transactional(readOnly = true)
-    public Page<ProductDTO> searchProductsByName(String name, Pageable pageable) {
-        return productRepository.findByNameContainingIgnoreCase(name, pageable).map(this::mapToDTO);
+    public Page<ProductDTO> searchProducts(String text, Pageable pageable) {
+        return productRepository.searchFullText(text, pageable).map(this::mapToDTO);
     }
 
     /**
      * Filtra productos por categoría
+     * Los IDs de la página salen de la caché de consultas y los productos de la caché de segundo nivel
      * @param category Categoría a filtrar
      * @param pageable Información de paginación
      * @return Página de productos de la categoría especificada
@@ -84,7 +140,11 @@ public class ProductServiceImpl implements ProductService {
     @Override
     @Transactional(readOnly = true)
     public Page<ProductDTO> getProductsByCategory(String category, Pageable pageable) {
-        return productRepository.findByCategoryIgnoreCase(category, pageable).map(this::mapToDTO);
+        Page<Long> ids = productRepository.findIdsByCategory(category, pageable);
+        List<ProductDTO> content = productRepository.findAllByIdUsingCache(ids.getContent()).stream()
+                .map(this::mapToDTO)
+                .collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, ids.getTotalElements());
     }
 
     /**
@@ -97,9 +157,14 @@ public class ProductServiceImpl implements ProductService {
     @Override
     @Transactional
     public ProductDTO updateProduct(Long id, ProductDTO productDTO) {
-        Product product = productRepository.findById(id)
+        // Con la fila bloqueada, los descuentos de reservas y del flush del ledger esperan a este commit
+        // en lugar de quedar pisados por el stock absoluto que se escribe abajo
+        Product product = productRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Producto no encontrado con id: " + id));
         
+        // En productos del ledger el contador se ajusta con la diferencia, sin pisar reservas en curso
+        stockLedger.adjust(id, productDTO.getStock() - product.getStock());
+        
         product.setName(productDTO.getName());
         product.setDescription(productDTO.getDescription());
         product.setPrice(productDTO.getPrice());
@@ -107,6 +172,7 @@ public class ProductServiceImpl implements ProductService {
         product.setCategory(productDTO.getCategory());
         
         Product updatedProduct = productRepository.save(product);
+        productChangeService.recordChange(id);
         return mapToDTO(updatedProduct);
     }
 
@@ -122,11 +188,15 @@ public class ProductServiceImpl implements ProductService {
             throw new ResourceNotFoundException("Producto no encontrado con id: " + id);
         }
         productRepository.deleteById(id);
+        productChangeService.recordChange(id);
+        stockLedger.untrack(id);
     }
 
     /**
      * Verifica si hay suficiente stock para un producto
-     * Implementa el patrón Circuit Breaker para simular una llamada externa
+     * Implementa el patrón Circuit Breaker sobre el StockProvider, que en pruebas
+     * puede simular una llamada externa lenta o que falla
+     * Se traza en el span check-stock, dentro del span de la petición HTTP
      * @param productId ID del producto a verificar
      * @param quantity Cantidad requerida
      * @return true si hay suficiente stock, false en caso contrario
@@ -134,37 +204,83 @@ public class ProductServiceImpl implements ProductService {
      */
     @Override
     @CircuitBreaker(name = "stockService", fallbackMethod = "checkStockFallback")
+    @NewSpan("check-stock")
     public boolean checkStock(Long productId, Integer quantity) {
-        // Simulando una llamada a un servicio externo para verificar stock
         log.info("Verificando stock para el producto {} con cantidad {}", productId, quantity);
-        
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new ResourceNotFoundException("Producto no encontrado con id: " + productId));
-        
-        // Simular un retraso para probar el circuit breaker
-        try {
-            Thread.sleep(100);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+        boolean available = stockProvider.availableStock(productId) >= quantity;
+        if (!available) {
+            rejectionMetrics.checkInsufficientStock();
         }
-        
-        return product.getStock() >= quantity;
+        return available;
     }
     
     /**
      * Método de respaldo (fallback) para el circuit breaker
      * Se ejecuta cuando el método checkStock falla o tarda demasiado
+     * Si el producto no existe se propaga el error en lugar de responder false
      * @param productId ID del producto
      * @param quantity Cantidad requerida
      * @param e Excepción que causó el fallo
      * @return false por defecto cuando el servicio no está disponible
      */
     public boolean checkStockFallback(Long productId, Integer quantity, Exception e) {
+        if (e instanceof ResourceNotFoundException notFound) {
+            rejectionMetrics.checkNotFound();
+            throw notFound;
+        }
         log.error("Circuit breaker activado para el producto {}: {}", productId, e.getMessage());
         // Por defecto retorna false cuando el servicio no está disponible
         return false;
     }
     
+    /**
+     * Verifica la disponibilidad de varios productos con una sola consulta
+     * Las cantidades de un mismo producto se acumulan antes de comparar con el stock
+     * @param items Pares (producto, cantidad) a verificar
+     * @return Un resultado por producto distinto, en el orden en que aparece en la consulta
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductAvailabilityDTO> checkAvailability(List<StockCheckItemDTO> items) {
+        Map<Long, Integer> requested = new LinkedHashMap<>();
+        for (StockCheckItemDTO item : items) {
+            requested.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        
+        Map<Long, Product> products = productRepository.findAllByIdUsingCache(requested.keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        
+        return requested.entrySet().stream()
+                .map(entry -> mapToAvailability(entry.getKey(), entry.getValue(), products.get(entry.getKey())))
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Construye el resultado de disponibilidad de un producto
+     * Si el producto no existe se marca como no encontrado y no disponible
+     */
+    private ProductAvailabilityDTO mapToAvailability(Long productId, Integer quantity, Product product) {
+        if (product == null) {
+            return ProductAvailabilityDTO.builder()
+                    .productId(productId)
+                    .requestedQuantity(quantity)
+                    .found(false)
+                    .available(false)
+                    .build();
+        }
+        
+        int stock = stockLedger.availableStock(productId).orElse(product.getStock());
+        return ProductAvailabilityDTO.builder()
+                .productId(productId)
+                .name(product.getName())
+                .price(product.getPrice())
+                .stock(stock)
+                .requestedQuantity(quantity)
+                .found(true)
+                .available(stock >= quantity)
+                .build();
+    }
+    
     /**
      * Convierte un DTO a una entidad Product
      * Utiliza el patrón Builder
@@ -190,7 +306,7 @@ public class ProductServiceImpl implements ProductService {
                 .name(product.getName())
                 .description(product.getDescription())
                 .price(product.getPrice())
-                .stock(product.getStock())
+                .stock(stockLedger.availableStock(product.getId()).orElse(product.getStock()))
                 .category(product.getCategory())
                 .build();
     }
@@ -0,0 +1,37 @@
+package com.parcial.msproducts.service.impl;
+
+import com.parcial.msproducts.service.StockReservationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Tarea periódica que devuelve el stock de las reservas vencidas.
+ * Cubre el caso en que el servicio de órdenes nunca confirma ni libera una reserva.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReservationExpiryJob {
+
+    private final StockReservationService reservationService;
+
+    @Value("${stock.reservation.expiry-batch-size:100}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${stock.reservation.expiry-check-interval:PT30S}")
+    public void expireReservations() {
+        List<Long> expiredIds = reservationService.findExpiredReservationIds(batchSize);
+        for (Long id : expiredIds) {
+            try {
+                reservationService.expire(id);
+            } catch (RuntimeException e) {
+                log.error("No se pudo expirar la reserva {}: {}", id, e.getMessage());
+            }
+        }
+    }
+}
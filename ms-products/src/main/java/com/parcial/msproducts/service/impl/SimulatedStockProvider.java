@@ -0,0 +1,89 @@
+package com.parcial.msproducts.service.impl;
+
+import com.parcial.msproducts.exception.StockUnavailableException;
+import com.parcial.msproducts.service.StockProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Solo para pruebas: simula que el stock viene de un servicio externo.
+ * Antes de delegar en {@link LocalStockProvider} espera una demora según la distribución
+ * configurada y falla con la probabilidad stock.simulation.error-rate, lo que permite
+ * probar el circuit breaker sin sumar latencia en producción.
+ * Se activa con stock.simulation.enabled=true.
+ */
+@Component
+@Primary
+@ConditionalOnProperty(name = "stock.simulation.enabled", havingValue = "true")
+@Slf4j
+public class SimulatedStockProvider implements StockProvider {
+
+    /**
+     * FIXED: siempre la demora configurada.
+     * NORMAL: normal con media latency y desvío std-dev (nunca negativa).
+     * LONG_TAIL: log-normal con mediana latency; tail-sigma controla qué tan larga es la cola
+     * (con 1.0 el p99 ronda 10 veces la mediana).
+     */
+    public enum LatencyDistribution {
+        FIXED, NORMAL, LONG_TAIL
+    }
+
+    private final LocalStockProvider delegate;
+
+    @Value("${stock.simulation.latency-distribution:FIXED}")
+    private LatencyDistribution distribution;
+
+    @Value("${stock.simulation.latency:PT0.1S}")
+    private Duration latency;
+
+    @Value("${stock.simulation.std-dev:PT0.02S}")
+    private Duration stdDev;
+
+    @Value("${stock.simulation.tail-sigma:1.0}")
+    private double tailSigma;
+
+    @Value("${stock.simulation.error-rate:0}")
+    private double errorRate;
+
+    public SimulatedStockProvider(LocalStockProvider delegate) {
+        this.delegate = delegate;
+        log.warn("Stock simulado activo: checkStock agrega demoras y fallas artificiales");
+    }
+
+    @Override
+    public int availableStock(Long productId) {
+        sleep(nextLatencyNanos());
+        if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+            throw new StockUnavailableException("Falla simulada al consultar el stock del producto " + productId);
+        }
+        return delegate.availableStock(productId);
+    }
+
+    private long nextLatencyNanos() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long base = latency.toNanos();
+        return switch (distribution) {
+            case FIXED -> base;
+            case NORMAL -> Math.max(0, Math.round(base + random.nextGaussian() * stdDev.toNanos()));
+            case LONG_TAIL -> Math.round(base * Math.exp(tailSigma * random.nextGaussian()));
+        };
+    }
+
+    private static void sleep(long nanos) {
+        if (nanos <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(nanos / 1_000_000, (int) (nanos % 1_000_000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StockUnavailableException("Consulta de stock interrumpida", e);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.parcial.msproducts.service.impl;
+
+import com.parcial.msproducts.model.Product;
+import com.parcial.msproducts.model.StockReservationItem;
+import com.parcial.msproducts.repository.ProductRepository;
+import com.parcial.msproducts.repository.StockReservationItemRepository;
+import com.parcial.msproducts.service.StockLedger;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ledger en memoria para el stock de productos de alta demanda (hot SKUs).
+ * Cada producto configurado tiene un contador atómico propio; las reservas lo
+ * descuentan con CAS sin tocar la fila del producto en MySQL, y los descuentos
+ * se aplican a la tabla products en lotes periódicos (write-behind).
+ * Los ítems de reserva guardan el descuento pendiente, así que tras una caída
+ * el arranque aplica lo que faltaba antes de volver a cargar los contadores.
+ * El ledger es local al proceso: solo es correcto con una única instancia
+ * atendiendo cada producto configurado.
+ */
+@Component
+@Slf4j
+public class StockLedgerImpl implements StockLedger, SmartInitializingSingleton {
+
+    private final ProductRepository productRepository;
+    private final StockReservationItemRepository itemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<Long, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    @Value("${stock.ledger.enabled:false}")
+    private boolean enabled;
+
+    @Value("${stock.ledger.hot-product-ids:}")
+    private Set<Long> hotProductIds;
+
+    @Value("${stock.ledger.flush-batch-size:500}")
+    private int flushBatchSize;
+
+    public StockLedgerImpl(ProductRepository productRepository,
+                           StockReservationItemRepository itemRepository,
+                           PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.itemRepository = itemRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Reconciliación al arrancar: aplica los descuentos pendientes de una ejecución
+     * anterior y carga los contadores con la fila bloqueada, antes de que el
+     * servidor web empiece a recibir peticiones
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled || hotProductIds.isEmpty()) {
+            return;
+        }
+        flush();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Product product : productRepository.findAllByIdForUpdate(hotProductIds)) {
+                counters.put(product.getId(), new AtomicLong(product.getStock()));
+            }
+        });
+        log.info("Ledger de stock activo para los productos {}", counters.keySet());
+    }
+
+    @Override
+    public boolean isTracked(Long productId) {
+        return counters.containsKey(productId);
+    }
+
+    @Override
+    public OptionalInt availableStock(Long productId) {
+        AtomicLong counter = counters.get(productId);
+        return counter == null ? OptionalInt.empty() : OptionalInt.of((int) counter.get());
+    }
+
+    /**
+     * Descuenta stock en memoria solo si alcanza (CAS, sin bloqueos)
+     * Si la transacción en curso se revierte, el descuento se devuelve solo
+     * @return true si se descontó, false si no hay stock suficiente o el producto no está en el ledger
+     */
+    @Override
+    public boolean tryReserve(Long productId, int quantity) {
+        AtomicLong counter = counters.get(productId);
+        if (counter == null) {
+            return false;
+        }
+        long current;
+        do {
+            current = counter.get();
+            if (current < quantity) {
+                return false;
+            }
+        } while (!counter.compareAndSet(current, current - quantity));
+        
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        counter.addAndGet(quantity);
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    /**
+     * Devuelve stock al contador cuando la transacción en curso se confirma
+     */
+    @Override
+    public void restore(Long productId, int quantity) {
+        adjust(productId, quantity);
+    }
+
+    /**
+     * Suma (o resta, si es negativo) una cantidad al contador cuando la transacción en curso se confirma
+     */
+    @Override
+    public void adjust(Long productId, int delta) {
+        AtomicLong counter = counters.get(productId);
+        if (counter == null || delta == 0) {
+            return;
+        }
+        runAfterCommit(() -> counter.addAndGet(delta));
+    }
+
+    @Override
+    public void untrack(Long productId) {
+        if (isTracked(productId)) {
+            runAfterCommit(() -> counters.remove(productId));
+        }
+    }
+
+    /**
+     * Aplica a la tabla products los descuentos pendientes, agrupados por producto
+     * Cada lote es una transacción que bloquea los ítems que procesa
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${stock.ledger.flush-interval:PT1S}")
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        int flushed;
+        do {
+            flushed = transactionTemplate.execute(status -> flushBatch());
+        } while (flushed == flushBatchSize);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private int flushBatch() {
+        List<StockReservationItem> pending = itemRepository.findLedgerPendingForUpdate(
+                PageRequest.of(0, flushBatchSize));
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        
+        Map<Long, Integer> deltas = new TreeMap<>();
+        List<Long> itemIds = new ArrayList<>(pending.size());
+        for (StockReservationItem item : pending) {
+            deltas.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+            itemIds.add(item.getId());
+        }
+        
+        deltas.forEach(productRepository::subtractStock);
+        itemRepository.markLedgerFlushed(itemIds);
+        log.debug("Ledger de stock: {} ítems aplicados sobre {} productos", itemIds.size(), deltas.size());
+        return pending.size();
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,52 @@
+package com.parcial.msproducts.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Contador products.stock.rejected de verificaciones y reservas rechazadas, con las
+ * etiquetas operation (check o reservation) y reason (insufficient_stock o not_found).
+ * Los contadores se registran al arrancar, así contar un rechazo no busca nada en el registro.
+ */
+@Component
+public class StockRejectionMetrics {
+
+    private static final String METRIC = "products.stock.rejected";
+
+    private final Counter checkInsufficientStock;
+    private final Counter checkNotFound;
+    private final Counter reservationInsufficientStock;
+    private final Counter reservationNotFound;
+
+    public StockRejectionMetrics(MeterRegistry registry) {
+        this.checkInsufficientStock = register(registry, "check", "insufficient_stock");
+        this.checkNotFound = register(registry, "check", "not_found");
+        this.reservationInsufficientStock = register(registry, "reservation", "insufficient_stock");
+        this.reservationNotFound = register(registry, "reservation", "not_found");
+    }
+
+    public void checkInsufficientStock() {
+        checkInsufficientStock.increment();
+    }
+
+    public void checkNotFound() {
+        checkNotFound.increment();
+    }
+
+    public void reservationInsufficientStock() {
+        reservationInsufficientStock.increment();
+    }
+
+    public void reservationNotFound() {
+        reservationNotFound.increment();
+    }
+
+    private static Counter register(MeterRegistry registry, String operation, String reason) {
+        return Counter.builder(METRIC)
+                .description("Verificaciones y reservas de stock rechazadas")
+                .tag("operation", operation)
+                .tag("reason", reason)
+                .register(registry);
+    }
+}
@@ -0,0 +1,324 @@
+package com.parcial.msproducts.service.impl;
+
+import com.parcial.msproducts.dto.ReservationRequestDTO;
+import com.parcial.msproducts.dto.ReservationResultDTO;
+import com.parcial.msproducts.dto.StockCheckItemDTO;
+import com.parcial.msproducts.dto.StockReservationDTO;
+import com.parcial.msproducts.exception.InsufficientStockException;
+import com.parcial.msproducts.exception.InvalidReservationStateException;
+import com.parcial.msproducts.exception.ResourceNotFoundException;
+import com.parcial.msproducts.model.ReservationStatus;
+import com.parcial.msproducts.model.StockReservation;
+import com.parcial.msproducts.model.StockReservationItem;
+import com.parcial.msproducts.repository.ProductRepository;
+import com.parcial.msproducts.repository.StockReservationItemRepository;
+import com.parcial.msproducts.repository.StockReservationRepository;
+import com.parcial.msproducts.service.StockLedger;
+import com.parcial.msproducts.service.StockReservationService;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Implementación del servicio de reservas de stock.
+ * Descuenta el stock con un UPDATE condicional (stock >= cantidad) en lugar de
+ * leer y luego escribir, de modo que dos reservas concurrentes nunca puedan
+ * vender la misma unidad.
+ * Las reservas con referencia son idempotentes: repetir la petición devuelve la reserva existente.
+ */
+@Service
+@Timed("products.service")
+@RequiredArgsConstructor
+@Slf4j
+public class StockReservationServiceImpl implements StockReservationService {
+
+    private final ProductRepository productRepository;
+    private final StockReservationRepository reservationRepository;
+    private final StockReservationItemRepository itemRepository;
+    private final StockLedger stockLedger;
+    private final StockRejectionMetrics rejectionMetrics;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${stock.reservation.ttl:PT5M}")
+    private Duration reservationTtl;
+
+    /**
+     * Reserva stock para todos los ítems solicitados
+     * Si algún producto no tiene stock suficiente la transacción completa se revierte
+     * Si ya existe una reserva con la misma referencia se devuelve esa, sin descontar stock
+     * @param request Productos y cantidades a reservar
+     * @return La reserva creada en estado RESERVED, o la existente con esa referencia
+     * @throws ResourceNotFoundException si algún producto no existe
+     * @throws InsufficientStockException si algún producto no tiene stock suficiente
+     */
+    @Override
+    @Transactional
+    public StockReservationDTO reserve(ReservationRequestDTO request) {
+        return mapToDTO(findOrReserve(request, ReservationStatus.RESERVED));
+    }
+
+    /**
+     * Reserva stock para varias órdenes, cada una en su propia transacción
+     * Una reserva rechazada no afecta al resto del lote; con commit las reservas nuevas se crean
+     * confirmadas y las existentes en RESERVED se confirman, así reintentar el lote entero
+     * nunca descuenta dos veces el stock de la misma referencia
+     * @param requests Reservas a crear, idealmente con referencia
+     * @param commit Si las reservas quedan confirmadas al crearlas
+     * @return Un resultado por reserva, en el mismo orden que la lista
+     */
+    @Override
+    public List<ReservationResultDTO> reserveAll(List<ReservationRequestDTO> requests, boolean commit) {
+        ReservationStatus initialStatus = commit ? ReservationStatus.COMMITTED : ReservationStatus.RESERVED;
+        List<ReservationResultDTO> results = new ArrayList<>(requests.size());
+        for (ReservationRequestDTO request : requests) {
+            try {
+                StockReservationDTO reservation = reserveOne(request, initialStatus, commit);
+                results.add(reservation.getStatus() == ReservationStatus.RELEASED
+                        || reservation.getStatus() == ReservationStatus.EXPIRED
+                        ? rejected(request, "RESERVA_ESTADO_INVALIDO",
+                                "La reserva " + reservation.getId() + " está en estado " + reservation.getStatus())
+                        : ReservationResultDTO.builder()
+                                .reference(request.getReference())
+                                .outcome(ReservationResultDTO.Outcome.RESERVED)
+                                .reservation(reservation)
+                                .build());
+            } catch (ResourceNotFoundException e) {
+                results.add(rejected(request, "RECURSO_NO_ENCONTRADO", e.getMessage()));
+            } catch (InsufficientStockException e) {
+                results.add(rejected(request, "STOCK_INSUFICIENTE", e.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Reserva de una orden del lote en su propia transacción
+     * Si otra petición crea la misma referencia entre la búsqueda y el INSERT, el índice único lo
+     * rechaza y se repite la transacción una vez: ahora findOrReserve encuentra la reserva existente
+     */
+    private StockReservationDTO reserveOne(ReservationRequestDTO request, ReservationStatus initialStatus,
+                                           boolean commit) {
+        try {
+            return reserveInTransaction(request, initialStatus, commit);
+        } catch (DataIntegrityViolationException e) {
+            if (request.getReference() == null) {
+                throw e;
+            }
+            log.info("Reserva {} creada por otra petición, se usa la existente", request.getReference());
+            return reserveInTransaction(request, initialStatus, commit);
+        }
+    }
+
+    private StockReservationDTO reserveInTransaction(ReservationRequestDTO request, ReservationStatus initialStatus,
+                                                     boolean commit) {
+        return transactionTemplate.execute(status -> {
+            StockReservation saved = findOrReserve(request, initialStatus);
+            if (commit && saved.getStatus() == ReservationStatus.RESERVED
+                    && reservationRepository.transition(saved.getId(), ReservationStatus.RESERVED,
+                    ReservationStatus.COMMITTED) == 1) {
+                saved = findReservation(saved.getId());
+            }
+            return mapToDTO(saved);
+        });
+    }
+
+    /**
+     * Devuelve la reserva con la referencia pedida o crea una nueva en el estado indicado
+     */
+    private StockReservation findOrReserve(ReservationRequestDTO request, ReservationStatus initialStatus) {
+        if (request.getReference() != null) {
+            Optional<StockReservation> existing = reservationRepository.findByReference(request.getReference());
+            if (existing.isPresent()) {
+                return existing.get();
+            }
+        }
+        
+        // Agrupar por producto y ordenar por ID para tomar los bloqueos de fila siempre en el mismo orden
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (StockCheckItemDTO item : request.getItems()) {
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        StockReservation reservation = StockReservation.builder()
+                .reference(request.getReference())
+                .status(initialStatus)
+                .createdAt(now)
+                .expiresAt(now.plus(reservationTtl))
+                .build();
+        
+        quantities.forEach((productId, quantity) -> {
+            // Los productos de alta demanda se descuentan en memoria; el resto, en la base de datos
+            boolean ledgerManaged = stockLedger.isTracked(productId);
+            boolean reserved = ledgerManaged
+                    ? stockLedger.tryReserve(productId, quantity)
+                    : productRepository.decrementStock(productId, quantity) == 1;
+            
+            if (!reserved) {
+                if (!ledgerManaged && !productRepository.existsById(productId)) {
+                    rejectionMetrics.reservationNotFound();
+                    throw new ResourceNotFoundException("Producto no encontrado con id: " + productId);
+                }
+                rejectionMetrics.reservationInsufficientStock();
+                throw new InsufficientStockException("Stock insuficiente para el producto con ID: " + productId);
+            }
+            reservation.getItems().add(StockReservationItem.builder()
+                    .reservation(reservation)
+                    .productId(productId)
+                    .quantity(quantity)
+                    .ledgerManaged(ledgerManaged)
+                    .ledgerPending(ledgerManaged)
+                    .build());
+        });
+        
+        StockReservation savedReservation = reservationRepository.save(reservation);
+        log.info("Reserva {} creada con {} productos", savedReservation.getId(), quantities.size());
+        return savedReservation;
+    }
+
+    private ReservationResultDTO rejected(ReservationRequestDTO request, String errorCode, String message) {
+        return ReservationResultDTO.builder()
+                .reference(request.getReference())
+                .outcome(ReservationResultDTO.Outcome.REJECTED)
+                .errorCode(errorCode)
+                .message(message)
+                .build();
+    }
+
+    /**
+     * Obtiene una reserva por su ID
+     * @param id ID de la reserva
+     * @return La reserva encontrada
+     * @throws ResourceNotFoundException si la reserva no existe
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public StockReservationDTO getReservation(Long id) {
+        return mapToDTO(findReservation(id));
+    }
+
+    /**
+     * Confirma una reserva; el stock descontado queda consumido definitivamente
+     * Confirmar una reserva ya confirmada no tiene efecto
+     * @param id ID de la reserva
+     * @return La reserva confirmada
+     * @throws InvalidReservationStateException si la reserva fue liberada o expiró
+     */
+    @Override
+    @Transactional
+    public StockReservationDTO commit(Long id) {
+        if (reservationRepository.transition(id, ReservationStatus.RESERVED, ReservationStatus.COMMITTED) == 0) {
+            StockReservation reservation = findReservation(id);
+            if (reservation.getStatus() != ReservationStatus.COMMITTED) {
+                throw new InvalidReservationStateException(
+                        "La reserva " + id + " no se puede confirmar en estado " + reservation.getStatus());
+            }
+            return mapToDTO(reservation);
+        }
+        return mapToDTO(findReservation(id));
+    }
+
+    /**
+     * Libera una reserva y devuelve su stock
+     * Liberar una reserva ya liberada o expirada no tiene efecto
+     * @param id ID de la reserva
+     * @return La reserva liberada
+     * @throws InvalidReservationStateException si la reserva ya fue confirmada
+     */
+    @Override
+    @Transactional
+    public StockReservationDTO release(Long id) {
+        if (reservationRepository.transition(id, ReservationStatus.RESERVED, ReservationStatus.RELEASED) == 0) {
+            StockReservation reservation = findReservation(id);
+            if (reservation.getStatus() == ReservationStatus.COMMITTED) {
+                throw new InvalidReservationStateException(
+                        "La reserva " + id + " ya fue confirmada y no se puede liberar");
+            }
+            return mapToDTO(reservation);
+        }
+        StockReservation reservation = findReservation(id);
+        restoreStock(reservation);
+        return mapToDTO(reservation);
+    }
+
+    /**
+     * Busca reservas vencidas que siguen en estado RESERVED
+     * @param limit Cantidad máxima de reservas a devolver
+     * @return IDs de las reservas vencidas, las más antiguas primero
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> findExpiredReservationIds(int limit) {
+        return reservationRepository.findIdsByStatusAndExpiresAtBefore(
+                ReservationStatus.RESERVED, LocalDateTime.now(), PageRequest.of(0, limit));
+    }
+
+    /**
+     * Marca una reserva vencida como EXPIRED y devuelve su stock
+     * Si la reserva cambió de estado mientras tanto no se hace nada
+     * @param id ID de la reserva
+     */
+    @Override
+    @Transactional
+    public void expire(Long id) {
+        if (reservationRepository.transition(id, ReservationStatus.RESERVED, ReservationStatus.EXPIRED) == 1) {
+            restoreStock(findReservation(id));
+            log.warn("Reserva {} expirada, stock devuelto", id);
+        }
+    }
+
+    private StockReservation findReservation(Long id) {
+        return reservationRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Reserva no encontrada con id: " + id));
+    }
+
+    /**
+     * Devuelve el stock de todos los ítems de una reserva
+     * Para los ítems del ledger, si el descuento todavía no llegó a la tabla products
+     * basta con anularlo; si ya se aplicó, se devuelve en la base de datos
+     */
+    private void restoreStock(StockReservation reservation) {
+        for (StockReservationItem item : reservation.getItems()) {
+            if (!item.isLedgerManaged()) {
+                productRepository.incrementStock(item.getProductId(), item.getQuantity());
+                continue;
+            }
+            if (itemRepository.clearLedgerPending(item.getId()) == 0) {
+                productRepository.incrementStock(item.getProductId(), item.getQuantity());
+            }
+            stockLedger.restore(item.getProductId(), item.getQuantity());
+        }
+    }
+
+    /**
+     * Convierte una entidad StockReservation a un DTO
+     * Utiliza el patrón Builder
+     */
+    private StockReservationDTO mapToDTO(StockReservation reservation) {
+        return StockReservationDTO.builder()
+                .id(reservation.getId())
+                .reference(reservation.getReference())
+                .status(reservation.getStatus())
+                .createdAt(reservation.getCreatedAt())
+                .expiresAt(reservation.getExpiresAt())
+                .items(reservation.getItems().stream()
+                        .map(item -> new StockCheckItemDTO(item.getProductId(), item.getQuantity()))
+                        .collect(Collectors.toList()))
+                .build();
+    }
+}
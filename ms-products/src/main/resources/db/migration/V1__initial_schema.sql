@@ -0,0 +1,12 @@
+-- Esquema inicial de ms-products, igual al que generaba ddl-auto=update.
+-- En bases creadas antes de Flyway esta versión se toma como baseline y no se ejecuta.
+
+create table products (
+    id bigint not null auto_increment,
+    name varchar(255),
+    description varchar(1000),
+    price decimal(38,2),
+    stock integer,
+    category varchar(255),
+    primary key (id)
+) engine=InnoDB;
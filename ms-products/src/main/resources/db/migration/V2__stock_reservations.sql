@@ -0,0 +1,23 @@
+-- Reservas de stock con vencimiento y sus ítems.
+-- ledger_managed / ledger_pending: el ítem se descontó en el ledger en memoria y falta o no volcarlo a products.
+
+create table stock_reservations (
+    id bigint not null auto_increment,
+    status enum ('RESERVED','COMMITTED','RELEASED','EXPIRED'),
+    created_at datetime(6),
+    expires_at datetime(6),
+    primary key (id)
+) engine=InnoDB;
+
+create table stock_reservation_items (
+    id bigint not null auto_increment,
+    reservation_id bigint,
+    product_id bigint,
+    quantity integer,
+    ledger_managed bit not null,
+    ledger_pending bit not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table stock_reservation_items add constraint fk_stock_reservation_items_reservation
+    foreign key (reservation_id) references stock_reservations (id);
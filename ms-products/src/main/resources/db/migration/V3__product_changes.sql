@@ -0,0 +1,8 @@
+-- Feed de cambios de productos (GET /api/products/changes): una fila por producto actualizado o eliminado; el id es la versión que usan los consumidores como cursor.
+
+create table product_changes (
+    id bigint not null auto_increment,
+    product_id bigint,
+    changed_at datetime(6),
+    primary key (id)
+) engine=InnoDB;
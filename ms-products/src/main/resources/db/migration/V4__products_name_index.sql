@@ -0,0 +1,3 @@
+-- Paginación por nombre con desempate por id.
+
+create index idx_products_name_id on products (name, id);
@@ -0,0 +1,18 @@
+-- Índices para las consultas de los repositorios de productos y reservas.
+-- En InnoDB create index es online: no bloquea lecturas ni escrituras mientras se arma.
+
+-- Filtro por categoría; la collation de la columna (utf8mb4_0900_ai_ci por defecto en MySQL 8)
+-- ya compara sin distinguir mayúsculas, así que la consulta no aplica funciones a la columna
+create index idx_products_category on products (category);
+
+-- Tarea de vencimiento de reservas: status = RESERVED and expires_at < now order by expires_at
+create index idx_stock_reservations_status_expires_at on stock_reservations (status, expires_at);
+
+-- Carga de ítems por reserva
+create index idx_stock_reservation_items_reservation_id on stock_reservation_items (reservation_id);
+
+-- Flush del ledger: ítems pendientes en orden de id
+create index idx_stock_reservation_items_ledger_pending on stock_reservation_items (ledger_pending, id);
+
+-- Purga del feed de cambios por antigüedad
+create index idx_product_changes_changed_at on product_changes (changed_at);
@@ -0,0 +1,7 @@
+-- Referencia opcional de la reserva, elegida por el cliente (ms-orders usa order-<id>).
+-- Es única: reintentar una reserva con la misma referencia devuelve la existente en lugar de descontar otra vez.
+-- MySQL admite varias filas con referencia nula en un índice único, así que las reservas sin referencia no cambian.
+
+alter table stock_reservations add column reference varchar(64);
+
+create unique index uk_stock_reservations_reference on stock_reservations (reference);
@@ -0,0 +1,108 @@
+package com.parcial.msproducts.service.impl;
+
+import com.parcial.msproducts.dto.ProductDTO;
+import com.parcial.msproducts.model.Product;
+import com.parcial.msproducts.repository.ProductRepository;
+import com.parcial.msproducts.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Búsqueda de productos en el índice de texto completo (Hibernate Search con Lucene):
+ * prefijos, errores de tipeo, acentos, relevancia del nombre sobre la descripción y
+ * reindexado al guardar un producto.
+ * Corre sobre H2 con el esquema de las migraciones de Flyway; el índice vive en memoria y se
+ * actualiza de forma sincrónica, así cada producto guardado ya se encuentra al volver del save.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:products-search;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+        "management.tracing.enabled=false",
+        "jdbc.datasource-proxy.enabled=false",
+        "spring.jpa.properties.hibernate.search.backend.directory.type=local-heap",
+        "spring.jpa.properties.hibernate.search.indexing.plan.synchronization.strategy=sync"
+})
+class ProductSearchTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @BeforeEach
+    void createProducts() {
+        if (productRepository.count() > 0) {
+            return;
+        }
+        productRepository.saveAll(List.of(
+                product("Teclado mecánico", "Periféricos", "Switches rojos y retroiluminación"),
+                product("Mouse inalámbrico", "Periféricos", "Sensor óptico de 16000 DPI"),
+                product("Monitor 27 pulgadas", "Pantallas", "Ideal para acompañar un teclado compacto"),
+                product("Silla ergonómica", "Muebles", "Respaldo de malla")));
+    }
+
+    @Test
+    void prefixFindsTheProduct() {
+        assertThat(names("tecl")).first().isEqualTo("Teclado mecánico");
+        assertThat(names("ergo")).containsExactly("Silla ergonómica");
+    }
+
+    @Test
+    void toleratesOneTypoAndIgnoresAccents() {
+        assertThat(names("teclafo")).first().isEqualTo("Teclado mecánico");
+        assertThat(names("MECANICO")).containsExactly("Teclado mecánico");
+        assertThat(names("perifericos")).containsExactlyInAnyOrder("Teclado mecánico", "Mouse inalámbrico");
+    }
+
+    @Test
+    void nameRanksAboveDescription() {
+        assertThat(names("teclado")).containsExactly("Teclado mecánico", "Monitor 27 pulgadas");
+    }
+
+    @Test
+    void savedChangesAreSearchable() {
+        Product chair = productRepository.findAll().stream()
+                .filter(product -> product.getName().startsWith("Silla"))
+                .findFirst()
+                .orElseThrow();
+        chair.setName("Sillón reclinable");
+        productRepository.save(chair);
+
+        assertThat(names("reclinable")).containsExactly("Sillón reclinable");
+        assertThat(names("ergonomica")).isEmpty();
+
+        chair.setName("Silla ergonómica");
+        productRepository.save(chair);
+    }
+
+    private List<String> names(String text) {
+        return productService.searchProducts(text, PageRequest.of(0, 10)).getContent().stream()
+                .map(ProductDTO::getName)
+                .collect(Collectors.toList());
+    }
+
+    private Product product(String name, String category, String description) {
+        return Product.builder()
+                .name(name)
+                .category(category)
+                .description(description)
+                .price(BigDecimal.TEN)
+                .stock(10)
+                .build();
+    }
+}
@@ -0,0 +1,153 @@
+package com.parcial.shared.threads;
+
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Intervalos en que cada hilo tuvo una transacción abierta.
+ * Se registra en el PlatformTransactionManager como TransactionExecutionListener, así cubre
+ * @Transactional, TransactionTemplate y cualquier otro uso del gestor sin mirar la pila.
+ * Los eventos JFR llegan en lotes, alrededor de un segundo después de ocurrir, por eso
+ * se guardan los últimos intervalos cerrados de cada hilo durante la retención.
+ */
+public class TransactionIntervals implements TransactionExecutionListener {
+
+    private static final int MAX_CLOSED_PER_THREAD = 16;
+
+    private final Duration retention;
+    private final Map<Long, ThreadIntervals> threads = new ConcurrentHashMap<>();
+
+    public TransactionIntervals(Duration retention) {
+        this.retention = retention;
+    }
+
+    @Override
+    public void afterBegin(TransactionExecution transaction, @Nullable Throwable beginFailure) {
+        if (beginFailure == null) {
+            threads.computeIfAbsent(currentThreadId(), id -> new ThreadIntervals())
+                    .begin(transaction, Instant.now());
+        }
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, @Nullable Throwable commitFailure) {
+        end(transaction);
+    }
+
+    @Override
+    public void afterRollback(TransactionExecution transaction, @Nullable Throwable rollbackFailure) {
+        end(transaction);
+    }
+
+    /**
+     * Indica si el hilo tenía una transacción abierta en ese instante
+     * @param threadId ID del hilo (Thread.getId, el mismo que informa JFR)
+     */
+    public boolean covers(long threadId, Instant instant) {
+        ThreadIntervals intervals = threads.get(threadId);
+        return intervals != null && intervals.covers(instant);
+    }
+
+    /**
+     * Descarta los hilos sin transacción abierta ni actividad dentro de la retención
+     */
+    public void prune() {
+        Instant limit = Instant.now().minus(retention);
+        threads.values().removeIf(intervals -> intervals.idleSince(limit));
+    }
+
+    private void end(TransactionExecution transaction) {
+        ThreadIntervals intervals = threads.get(currentThreadId());
+        if (intervals != null) {
+            intervals.end(transaction, Instant.now());
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private static long currentThreadId() {
+        // Thread.threadId() recién existe en Java 19; getId() devuelve el mismo valor
+        return Thread.currentThread().getId();
+    }
+
+    /**
+     * Transacciones de un hilo; lo escribe el propio hilo y lo lee el hilo del monitor
+     * Con ReentrantLock y no synchronized, para no fijar hilos virtuales en el diagnóstico
+     */
+    private static final class ThreadIntervals {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Set<TransactionExecution> open = Collections.newSetFromMap(new IdentityHashMap<>());
+        private final Deque<Instant[]> closed = new ArrayDeque<>();
+        private Instant openedAt;
+        private Instant lastActivity;
+
+        void begin(TransactionExecution transaction, Instant now) {
+            lock.lock();
+            try {
+                if (open.isEmpty()) {
+                    openedAt = now;
+                }
+                open.add(transaction);
+                lastActivity = now;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Se ignoran los cierres repetidos: con un commit fallido Spring avisa commit y rollback
+         */
+        void end(TransactionExecution transaction, Instant now) {
+            lock.lock();
+            try {
+                if (open.remove(transaction) && open.isEmpty()) {
+                    closed.addLast(new Instant[]{openedAt, now});
+                    if (closed.size() > MAX_CLOSED_PER_THREAD) {
+                        closed.removeFirst();
+                    }
+                }
+                lastActivity = now;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean covers(Instant instant) {
+            lock.lock();
+            try {
+                if (!open.isEmpty() && !instant.isBefore(openedAt)) {
+                    return true;
+                }
+                for (Instant[] interval : closed) {
+                    if (!instant.isBefore(interval[0]) && !instant.isAfter(interval[1])) {
+                        return true;
+                    }
+                }
+                return false;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean idleSince(Instant limit) {
+            lock.lock();
+            try {
+                return open.isEmpty() && lastActivity.isBefore(limit);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.parcial.shared.threads;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Diagnóstico de pinning compartido por ms-orders y ms-products (cada uno lo importa).
+ * Solo se activa con spring.threads.virtual.enabled=true sobre Java 21 o superior.
+ * Spring Boot registra el TransactionExecutionListener en el gestor de transacciones JPA.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadDiagnosticsConfig {
+
+    @Bean
+    public TransactionIntervals transactionIntervals(
+            @Value("${threads.pinning.transaction-retention:PT10S}") Duration retention) {
+        return new TransactionIntervals(retention);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(
+            TransactionIntervals transactionIntervals,
+            @Value("${threads.pinning.threshold:PT0.02S}") Duration threshold,
+            @Value("${threads.pinning.stack-depth:8}") int stackDepth) {
+        return new VirtualThreadPinningMonitor(transactionIntervals, threshold, stackDepth);
+    }
+}
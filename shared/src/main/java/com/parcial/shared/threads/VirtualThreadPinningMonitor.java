@@ -0,0 +1,70 @@
+package com.parcial.shared.threads;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Diagnóstico de hilos virtuales fijados (pinned) a su hilo portador.
+ * Escucha el evento JFR jdk.VirtualThreadPinned, que se emite cuando un hilo
+ * virtual se bloquea dentro de un bloque synchronized o de código nativo, y
+ * registra la pila indicando si el hilo tenía una transacción abierta en ese momento
+ * (según {@link TransactionIntervals}, no según los frames de la pila, que JFR recorta).
+ */
+@Slf4j
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final TransactionIntervals transactionIntervals;
+    private final Duration threshold;
+    private final int stackDepth;
+    private RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(TransactionIntervals transactionIntervals, Duration threshold, int stackDepth) {
+        this.transactionIntervals = transactionIntervals;
+        this.threshold = threshold;
+        this.stackDepth = stackDepth;
+    }
+
+    public void start() {
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::report);
+        recordingStream.onFlush(transactionIntervals::prune);
+        recordingStream.startAsync();
+        log.info("Monitor de hilos virtuales fijados activo (umbral {} ms)", threshold.toMillis());
+    }
+
+    public void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+
+    private void report(RecordedEvent event) {
+        RecordedThread thread = event.getThread();
+        boolean insideTransaction = thread != null
+                && transactionIntervals.covers(thread.getJavaThreadId(), event.getStartTime());
+
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        List<RecordedFrame> frames = stackTrace == null ? List.of() : stackTrace.getFrames();
+        String stack = frames.stream()
+                .limit(stackDepth)
+                .map(frame -> frame.getMethod().getType().getName() + "."
+                        + frame.getMethod().getName() + ":" + frame.getLineNumber())
+                .collect(Collectors.joining(" <- "));
+
+        log.warn("Hilo virtual fijado durante {} ms{}: {}",
+                event.getDuration().toMillis(),
+                insideTransaction ? " dentro de una transacción" : "",
+                stack);
+    }
+}